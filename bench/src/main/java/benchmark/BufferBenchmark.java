@@ -0,0 +1,55 @@
+package benchmark;
+
+import buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+// characters per second read by Buffer.getChar
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BufferBenchmark {
+    private static final int BUFFER_SIZE = 4096;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long chars;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            chars = 0;
+        }
+    }
+
+    @Param({"1000", "100000", "4000000"})
+    public int programSize;
+
+    private String program;
+
+    @Setup
+    public void setUp() {
+        program = SyntheticProgram.generate(programSize);
+    }
+
+    @Benchmark
+    public int getChar(Counters counters) {
+        Buffer buffer = new Buffer(new StringReader(program), BUFFER_SIZE);
+
+        int length = program.length();
+        int checksum = 0;
+
+        for (int i = 0; i < length; i++) {
+            checksum += buffer.getChar();
+        }
+
+        counters.chars += length;
+
+        return checksum;
+    }
+}
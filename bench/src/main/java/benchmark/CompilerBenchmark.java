@@ -0,0 +1,71 @@
+package benchmark;
+
+import compiler.CompilationErrorException;
+import compiler.InstructionList;
+import compiler.ProgramCompiler;
+import org.openjdk.jmh.annotations.*;
+import parser.Parser;
+import parser.ParsingErrorException;
+import parser.nodes.Node;
+import tokenizer.IllegalCharacterException;
+import tokenizer.TokenStream;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+// instructions per second written by ProgramCompiler.compileProgram,
+// tree is parsed once and compiled again by every invocation
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompilerBenchmark {
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long instructions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            instructions = 0;
+        }
+    }
+
+    @Param({"1000", "100000", "4000000"})
+    public int programSize;
+
+    private Node root;
+    private long instructionsCount;
+
+    @Setup
+    public void setUp() throws IllegalCharacterException, ParsingErrorException, CompilationErrorException {
+        String program = SyntheticProgram.generate(programSize);
+        root = new Parser(TokenStream.tokenize(program)).parse();
+
+        // recorded code has the same instructions, as any emitter gets
+        InstructionList recorded = new InstructionList();
+        new ProgramCompiler().compileProgram(root, recorded);
+        instructionsCount = recorded.size();
+    }
+
+    @Benchmark
+    public byte[] classFile(Counters counters) throws CompilationErrorException {
+        byte[] result = new ProgramCompiler().compileClassFile(root);
+
+        counters.instructions += instructionsCount;
+
+        return result;
+    }
+
+    @Benchmark
+    public StringWriter jasmin(Counters counters) throws CompilationErrorException {
+        StringWriter writer = new StringWriter();
+        new ProgramCompiler().compileProgram(root, writer);
+
+        counters.instructions += instructionsCount;
+
+        return writer;
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import parser.Parser;
+import parser.ParsingErrorException;
+import parser.nodes.Node;
+import tokenizer.IllegalCharacterException;
+import tokenizer.TokenStream;
+
+import java.util.concurrent.TimeUnit;
+
+// tree nodes per second built by Parser.parse, tokens come from TokenStream,
+// which is the cheapest tokenizer, so that parser takes most of the time
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Param({"1000", "100000", "4000000"})
+    public int programSize;
+
+    private char[] program;
+    private long nodesCount;
+
+    @Setup
+    public void setUp() throws IllegalCharacterException, ParsingErrorException {
+        program = SyntheticProgram.generate(programSize).toCharArray();
+        nodesCount = parse().countNodes();
+    }
+
+    @Benchmark
+    public Node parse(Counters counters) throws IllegalCharacterException, ParsingErrorException {
+        Node root = parse();
+
+        counters.nodes += nodesCount;
+
+        return root;
+    }
+
+    private Node parse() throws IllegalCharacterException, ParsingErrorException {
+        return new Parser(TokenStream.tokenize(program, program.length)).parse();
+    }
+}
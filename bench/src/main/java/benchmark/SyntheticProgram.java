@@ -0,0 +1,47 @@
+package benchmark;
+
+// generates valid programs of requested size for benchmarks
+public class SyntheticProgram {
+    public static String generate(int targetSize) {
+        StringBuilder program = new StringBuilder(targetSize + 1024);
+
+        int methodIndex = 0;
+
+        while (program.length() < targetSize) {
+            program.append("double method").append(toLetters(methodIndex))
+                    .append("(int alpha, double beta) {\n")
+                    .append("    int gamma;\n")
+                    .append("    double delta;\n")
+                    .append("    gamma = alpha * 3 + 17 - alpha / 2;\n")
+                    .append("    delta = (beta + 1.5) * (gamma - 2.25) / 4.0;\n")
+                    .append("    // one line comment\n")
+                    .append("    if ((gamma) > (alpha)) {\n")
+                    .append("        delta = delta - gamma * 2;\n")
+                    .append("    } else {\n")
+                    .append("        delta = delta + 1;\n")
+                    .append("    };\n")
+                    .append("    return delta * 0.5 + gamma;\n")
+                    .append("}\n\n");
+
+            methodIndex++;
+        }
+
+        program.append("void main() {\n")
+                .append("    print methodA(1, 2.0);\n")
+                .append("}\n");
+
+        return program.toString();
+    }
+
+    // identifiers can contain only letters
+    private static String toLetters(int index) {
+        StringBuilder result = new StringBuilder();
+
+        do {
+            result.append((char) ('A' + index % 26));
+            index /= 26;
+        } while (index > 0);
+
+        return result.toString();
+    }
+}
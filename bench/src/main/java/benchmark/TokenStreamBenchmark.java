@@ -0,0 +1,79 @@
+package benchmark;
+
+import buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tokenizer.IllegalCharacterException;
+import tokenizer.TableTokenizer;
+import tokenizer.Token;
+import tokenizer.TokenStream;
+import tokenizer.Tokenizer;
+import tokenizer.TokenizerInterface;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+// compares Tokenizer with TokenStream on multi-megabyte program, built by bench/pom.xml,
+// run with "java -jar target/benchmarks.jar TokenStreamBenchmark -prof gc" to see allocation rate per operation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenStreamBenchmark {
+    @Param({"4000000"})
+    public int programSize;
+
+    private String program;
+    private char[] programChars;
+
+    @Setup
+    public void setUp() {
+        program = SyntheticProgram.generate(programSize);
+        programChars = program.toCharArray();
+    }
+
+    @Benchmark
+    public void tokenizer(Blackhole blackhole) throws IllegalCharacterException {
+        consume(new Tokenizer(new Buffer(new StringReader(program), 10)), blackhole);
+    }
+
+    @Benchmark
+    public void tableTokenizer(Blackhole blackhole) throws IllegalCharacterException {
+        consume(new TableTokenizer(new Buffer(new StringReader(program), 10)), blackhole);
+    }
+
+    @Benchmark
+    public void tokenStream(Blackhole blackhole) throws IllegalCharacterException {
+        TokenStream stream = TokenStream.tokenize(programChars, programChars.length);
+
+        for (int i = 0; i < stream.size(); i++) {
+            blackhole.consume(stream.getType(i));
+        }
+    }
+
+    // same work as tokenizers do: Token for every token and value for every identifier and number
+    @Benchmark
+    public void tokenStreamWithValues(Blackhole blackhole) throws IllegalCharacterException {
+        TokenStream stream = TokenStream.tokenize(programChars, programChars.length);
+
+        for (int i = 0; i < stream.size(); i++) {
+            Token token = stream.getToken();
+
+            blackhole.consume(token);
+            blackhole.consume(token.getValue());
+        }
+    }
+
+    private void consume(TokenizerInterface tokenizer, Blackhole blackhole) throws IllegalCharacterException {
+        Token token;
+
+        do {
+            token = tokenizer.getToken();
+
+            blackhole.consume(token);
+            blackhole.consume(token.getValue());
+        } while (!token.hasType(Token.Type.END_OF_PROGRAM));
+    }
+}
@@ -0,0 +1,69 @@
+package benchmark;
+
+import buffer.Buffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tokenizer.IllegalCharacterException;
+import tokenizer.TableTokenizer;
+import tokenizer.Token;
+import tokenizer.Tokenizer;
+import tokenizer.TokenizerInterface;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+// tokens per second returned by getToken of both tokenizers
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TokenizerBenchmark {
+    private static final int BUFFER_SIZE = 4096;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+        }
+    }
+
+    @Param({"1000", "100000", "4000000"})
+    public int programSize;
+
+    private String program;
+
+    @Setup
+    public void setUp() {
+        program = SyntheticProgram.generate(programSize);
+    }
+
+    @Benchmark
+    public void tokenizer(Counters counters, Blackhole blackhole) throws IllegalCharacterException {
+        counters.tokens += consume(new Tokenizer(new Buffer(new StringReader(program), BUFFER_SIZE)), blackhole);
+    }
+
+    @Benchmark
+    public void tableTokenizer(Counters counters, Blackhole blackhole) throws IllegalCharacterException {
+        counters.tokens += consume(new TableTokenizer(new Buffer(new StringReader(program), BUFFER_SIZE)), blackhole);
+    }
+
+    private static long consume(TokenizerInterface tokenizer, Blackhole blackhole) throws IllegalCharacterException {
+        long count = 0;
+        Token token;
+
+        do {
+            token = tokenizer.getToken();
+            count++;
+
+            blackhole.consume(token);
+        } while (!token.hasType(Token.Type.END_OF_PROGRAM));
+
+        return count;
+    }
+}
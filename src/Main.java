@@ -1,41 +1,250 @@
-import buffer.Buffer;
 import buffer.BufferInterface;
+import buffer.MappedFileBuffer;
+import compiler.CompilationErrorException;
 import compiler.ProgramCompiler;
+import daemon.CompileClient;
+import daemon.CompileDaemon;
+import driver.BatchCompiler;
+import driver.CompileCache;
+import driver.CompilerDriver;
+import metrics.CompilerMetrics;
+import optimizer.ConstantFolder;
 import parser.Parser;
+import parser.ParserListener;
 import parser.ParsingErrorException;
+import parser.TracingParserListener;
 import parser.nodes.Node;
-import tokenizer.Tokenizer;
+import runner.ExecutionErrorException;
+import runner.ProgramRunner;
+import tokenizer.TableTokenizer;
 import tokenizer.TokenizerInterface;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import javax.management.JMException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
+    private static final String DEFAULT_SOURCE = "./resources/testIfProgram.c";
+
+    private static final String RUN_MODE = "run";
+    private static final String BATCH_MODE = "batch";
+    private static final String DAEMON_MODE = "daemon";
+    private static final String VERBOSE_OPTION = "-v";
+    private static final String CACHE_OPTION = "-c";
+    private static final String METRICS_OPTION = "-m";
+    private static final String DAEMON_OPTION = "-d";
+
+    private static final int WARM_UP_ITERATIONS = 2000;
+
+    // usage: Main [-v] [-m] [-c cache directory] [run] [source file] [program arguments...]
+    //        Main [-m] batch <output directory> <source file or directory>...
+    //        Main daemon <port or socket path>
+    //        Main -d <port or socket path> run [source file] [program arguments...]
+    // without "run" program is compiled to Jasmin file,
+    // with "run" it is compiled to class in memory and its main() is called immediately,
+    // "-v" traces parsing and prints syntax tree,
+    // "-c" keeps compiled classes of "run" in given directory and reuses them for the same source,
+    // "-m" prints time, allocations and sizes of compiler phases of "run" or "batch" to standard error,
+// together with "-c" also hits, misses and evictions of the cache,
+    // "batch" compiles every source to its own class file in output directory in parallel,
+    // "daemon" keeps warmed up compiler running and serves compile requests on loopback port or Unix socket,
+    // "-d" compiles program of "run" by such daemon
     public static void main( String[] args ) {
+        boolean verbose = false;
+        String cacheDirectory = null;
+        String daemonAddress = null;
+        boolean printMetrics = false;
+        int modeIndex = 0;
+
+        while ( modeIndex < args.length && args[modeIndex].startsWith( "-" ) ) {
+            if ( args[modeIndex].equals( VERBOSE_OPTION ) ) {
+                verbose = true;
+            } else if ( args[modeIndex].equals( CACHE_OPTION ) && modeIndex + 1 < args.length ) {
+                cacheDirectory = args[++modeIndex];
+            } else if ( args[modeIndex].equals( DAEMON_OPTION ) && modeIndex + 1 < args.length ) {
+                daemonAddress = args[++modeIndex];
+            } else if ( args[modeIndex].equals( METRICS_OPTION ) ) {
+                printMetrics = true;
+            } else {
+                System.err.println( "Unknown option: " + args[modeIndex] );
+                return;
+            }
+
+            modeIndex++;
+        }
+
+        if ( args.length > modeIndex + 1 && args[modeIndex].equals( BATCH_MODE ) ) {
+            List<Path> inputs = new ArrayList<>();
+
+            for ( int i = modeIndex + 2; i < args.length; i++ ) {
+                inputs.add( Paths.get( args[i] ) );
+            }
+
+            batch( Paths.get( args[modeIndex + 1] ), inputs, printMetrics );
+            return;
+        }
+
+        if ( args.length > modeIndex + 1 && args[modeIndex].equals( DAEMON_MODE ) ) {
+            daemon( address( args[modeIndex + 1] ) );
+            return;
+        }
+
+        boolean run = args.length > modeIndex && args[modeIndex].equals( RUN_MODE );
+        int sourceIndex = run ? modeIndex + 1 : modeIndex;
+
+        String source = args.length > sourceIndex ? args[sourceIndex] : DEFAULT_SOURCE;
+        String[] programArgs = Arrays.copyOfRange( args, Math.min( sourceIndex + 1, args.length ), args.length );
+
+        if ( run && daemonAddress != null ) {
+            runWithDaemon( Paths.get( source ), address( daemonAddress ), programArgs );
+            return;
+        }
+
+        if ( run && ( cacheDirectory != null || printMetrics ) && !verbose ) {
+            runWithDriver( Paths.get( source ), cacheDirectory != null ? Paths.get( cacheDirectory ) : null,
+                    printMetrics, programArgs );
+            return;
+        }
+
         BufferInterface buffer = null;
         try {
-            buffer = new Buffer( new FileReader( new File( "./resources/testIfProgram.c" ) ), 10 );
-        } catch ( FileNotFoundException e ) {
+            buffer = new MappedFileBuffer( Paths.get( source ) );
+        } catch ( IOException e ) {
             e.printStackTrace();
+            return;
         }
 
-        TokenizerInterface tokenizer = new Tokenizer( buffer );
+        TokenizerInterface tokenizer = new TableTokenizer( buffer );
         Parser parser;
 
         try {
-            parser = new Parser( tokenizer );
+            ParserListener listener = verbose ? new TracingParserListener() : ParserListener.NONE;
+
+            parser = new Parser( tokenizer, listener );
 
-            Node result = parser.parse();
-            String resultString = result.toTreeString( 0 );
-            System.out.println(resultString);
+            Node result = new ConstantFolder().fold( parser.parse() );
+
+            if ( verbose ) {
+                System.out.println( result.toTreeString( 0 ) );
+            }
 
             ProgramCompiler compiler = new ProgramCompiler();
-            compiler.compileProgram( result );
-        } catch ( ParsingErrorException e ) {
+
+            if ( run ) {
+                byte[] classBytes = compiler.compileClassFile( result );
+
+                ProgramRunner.run( ProgramCompiler.CLASS_NAME, classBytes, programArgs );
+            } else {
+                compiler.compileProgram( result );
+            }
+        } catch ( ParsingErrorException | CompilationErrorException | ExecutionErrorException e ) {
             System.err.println( e.getMessage() );
             e.printStackTrace();
         }
 
     }
+
+    // number is loopback port, anything else is path of Unix domain socket
+    private static SocketAddress address( String address ) {
+        try {
+            return new InetSocketAddress( InetAddress.getLoopbackAddress(), Integer.parseInt( address ) );
+        } catch ( NumberFormatException e ) {
+            return UnixDomainSocketAddress.of( address );
+        }
+    }
+
+    private static void daemon( SocketAddress address ) {
+        try ( CompileDaemon daemon = new CompileDaemon( address, Runtime.getRuntime().availableProcessors() ) ) {
+            daemon.warmUp( WARM_UP_ITERATIONS );
+            daemon.getMetrics().register();
+            daemon.start();
+
+            System.err.println( "Compile daemon is listening on " + daemon.getAddress() );
+
+            daemon.join();
+        } catch ( IOException | JMException | ParsingErrorException | CompilationErrorException e ) {
+            System.err.println( e.getMessage() );
+            e.printStackTrace();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void runWithDaemon( Path source, SocketAddress address, String[] programArgs ) {
+        try ( CompileClient client = new CompileClient( address ) ) {
+            byte[] classBytes = client.compileClassFile( Files.readAllBytes( source ), ProgramCompiler.CLASS_NAME );
+
+            ProgramRunner.run( ProgramCompiler.CLASS_NAME, classBytes, programArgs );
+        } catch ( IOException | ParsingErrorException | CompilationErrorException | ExecutionErrorException e ) {
+            System.err.println( e.getMessage() );
+            e.printStackTrace();
+        }
+    }
+
+    private static void batch( Path outputDirectory, List<Path> inputs, boolean printMetrics ) {
+        BatchCompiler compiler = new BatchCompiler( outputDirectory );
+        CompilerMetrics metrics = printMetrics ? new CompilerMetrics() : CompilerMetrics.NONE;
+
+        compiler.setMetrics( metrics );
+
+        try {
+            int failed = 0;
+
+            for ( BatchCompiler.Result result : compiler.compile( inputs ) ) {
+                if ( !result.isSuccessful() ) {
+                    System.err.println( result.getSource() + ": " + result.getError().getMessage() );
+                    failed++;
+                }
+            }
+
+            if ( printMetrics ) {
+                System.err.print( metrics.getReport() );
+            }
+
+            if ( failed > 0 ) {
+                System.err.println( failed + " source files were not compiled" );
+            }
+        } catch ( IOException | CompilationErrorException e ) {
+            System.err.println( e.getMessage() );
+            e.printStackTrace();
+        }
+    }
+
+    // cacheDirectory is null, when compiled class is not cached
+    private static void runWithDriver( Path source, Path cacheDirectory, boolean printMetrics, String[] programArgs ) {
+        try {
+            CompilerDriver driver = new CompilerDriver( cacheDirectory != null ? new CompileCache( cacheDirectory ) : null );
+
+            if ( printMetrics ) {
+                driver.setMetrics( new CompilerMetrics() );
+            }
+
+            byte[] classBytes = driver.compile( source );
+
+            if ( printMetrics ) {
+                System.err.print( driver.getMetrics().getReport() );
+
+                CompileCache cache = driver.getCache();
+
+                if ( cache != null ) {
+                    System.err.printf( "cache: %d hits, %d misses, %d evictions%n",
+                            cache.getHits(), cache.getMisses(), cache.getEvictions() );
+                }
+            }
+
+            ProgramRunner.run( ProgramCompiler.CLASS_NAME, classBytes, programArgs );
+        } catch ( IOException | ParsingErrorException | CompilationErrorException | ExecutionErrorException e ) {
+            System.err.println( e.getMessage() );
+            e.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package buffer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// reads source file mapped to memory, UTF-8 bytes are decoded in place,
+// so ASCII characters are plain index reads without copying
+public class MappedFileBuffer implements BufferInterface {
+    private static final char END_OF_DATA = '\u0000';
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private MappedByteBuffer bytes;
+    private int limit;
+    private int position = 0;
+
+    public MappedFileBuffer(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large to be mapped: " + path + " (" + size + " bytes)");
+            }
+
+            // mapping stays valid after channel is closed
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            limit = (int) size;
+        }
+
+        // skip UTF-8 byte order mark
+        if (limit >= 3
+                && (bytes.get(0) & 0xff) == 0xEF
+                && (bytes.get(1) & 0xff) == 0xBB
+                && (bytes.get(2) & 0xff) == 0xBF) {
+            position = 3;
+        }
+    }
+
+    @Override
+    public char getChar() {
+        if (position >= limit) {
+            return END_OF_DATA;
+        }
+
+        byte current = bytes.get(position);
+
+        if (current >= 0) {
+            position++;
+            return (char) current;
+        }
+
+        char result = decode(position);
+        position += width(position);
+
+        return result;
+    }
+
+    @Override
+    public char peekChar() {
+        if (position >= limit) {
+            return END_OF_DATA;
+        }
+
+        byte current = bytes.get(position);
+
+        if (current >= 0) {
+            return (char) current;
+        }
+
+        return decode(position);
+    }
+
+    @Override
+    public char peekNextChar() {
+        if (position >= limit) {
+            return END_OF_DATA;
+        }
+
+        int next = position + width(position);
+
+        if (next >= limit) {
+            return END_OF_DATA;
+        }
+
+        byte nextByte = bytes.get(next);
+
+        if (nextByte >= 0) {
+            return (char) nextByte;
+        }
+
+        return decode(next);
+    }
+
+    // length of UTF-8 sequence, which starts at offset
+    private int width(int offset) {
+        int first = bytes.get(offset) & 0xff;
+        int width;
+
+        if (first < 0x80) {
+            return 1;
+        } else if (first >= 0xF0) {
+            width = 4;
+        } else if (first >= 0xE0) {
+            width = 3;
+        } else if (first >= 0xC0) {
+            width = 2;
+        } else {
+            // unexpected continuation byte
+            return 1;
+        }
+
+        return Math.min(width, limit - offset);
+    }
+
+    private char decode(int offset) {
+        int first = bytes.get(offset) & 0xff;
+        int width = width(offset);
+
+        switch (width) {
+            case 2:
+                if (first >= 0xC0 && first < 0xE0) {
+                    return (char) (((first & 0x1F) << 6) | (bytes.get(offset + 1) & 0x3F));
+                }
+                break;
+
+            case 3:
+                if (first >= 0xE0 && first < 0xF0) {
+                    return (char) (((first & 0x0F) << 12)
+                            | ((bytes.get(offset + 1) & 0x3F) << 6)
+                            | (bytes.get(offset + 2) & 0x3F));
+                }
+                break;
+        }
+
+        // malformed sequence or character outside of BMP, tokenizer does not accept them anyway
+        return REPLACEMENT_CHARACTER;
+    }
+}
@@ -1,10 +1,5 @@
 package compiler;
 
-import tokenizer.Token;
-
-import java.util.HashMap;
-import java.util.Map;
-
 public class CodeBuilder {
 
     public static enum StackOperation {
@@ -16,10 +11,7 @@ public class CodeBuilder {
 
     public static final String CODE_INDENT = "   ";
 
-    public static final String CODE_HEADER =
-            ".source                  MainJasmin.java\n" +
-                    ".class                   public MainJasmin\n" +
-                    ".super                   java/lang/Object\n\n\n";
+    public static final String CODE_HEADER = classHeader("MainJasmin");
 
     public static final String CODE_CONSTRUCTOR =
             ".method                  public <init>()V\n" +
@@ -34,25 +26,13 @@ public class CodeBuilder {
     public static final String METHOD_MAIN_SIGNATURE = ".method                  public static main([Ljava/lang/String;)V\n";
     public static final String METHOD_END = ".end method\n\n";
 
-    private static Map<ProgramCompiler.ValueType, String> typeSymbols = new HashMap<>();
-    private static Map<StackOperation, String> operationCodes = new HashMap<>();
-    private static Map<Token.Type, String> comparisonOperators = new HashMap<>();
-
-    static {
-        typeSymbols.put(ProgramCompiler.ValueType.I, "i");
-        typeSymbols.put(ProgramCompiler.ValueType.D, "d");
-        typeSymbols.put(ProgramCompiler.ValueType.V, "");
+    // width of mnemonic column, operands are aligned after it
+    private static final int MNEMONIC_WIDTH = 22;
 
-        operationCodes.put(StackOperation.ADD, "add");
-        operationCodes.put(StackOperation.SUB, "sub");
-        operationCodes.put(StackOperation.MUL, "mul");
-        operationCodes.put(StackOperation.DIV, "div");
-
-        comparisonOperators.put(Token.Type.EQUALS, "ifeq");
-        comparisonOperators.put(Token.Type.GREATER_THAN, "ifgt");
-        comparisonOperators.put(Token.Type.GREATER_THAN_OR_EQUALS, "ifge");
-        comparisonOperators.put(Token.Type.LESS_THAN, "iflt");
-        comparisonOperators.put(Token.Type.LESS_THAN_OR_EQUALS, "ifle");
+    public static String classHeader( String className ) {
+        return ".source                  " + className + ".java\n" +
+                ".class                   public " + className + "\n" +
+                ".super                   java/lang/Object\n\n\n";
     }
 
     public static String methodDeclarationHeader( String signature ) {
@@ -64,113 +44,66 @@ public class CodeBuilder {
                 + CODE_INDENT + ".limit locals         " + limitLocals + "\n";
     }
 
-    public static String storeStackToVariable( ProgramCompiler.ValueType type, int index, String name ) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
-
-        String typeSymbol = typeSymbols.get(type);
-
-        if ( typeSymbol == null ) {
-            throw new CompilationErrorException("Unknown type: " + type);
-        }
-
-        result.append(CodeBuilder.CODE_INDENT)
-                .append(typeSymbol)
-                .append("store                ")
-                .append(index)
-                .append("    ; stack head -> variable \"")
-                .append(name)
-                .append("\"")
-                .append("\n");
-
-        return result.toString();
-    }
-
-    public static String storeStackToVariable( ProgramCompiler.Variable variable ) throws CompilationErrorException {
-        return storeStackToVariable( variable.getType(), variable.getIndex(), variable.getName() );
+    public static String instruction(Opcode opcode) {
+        return CODE_INDENT + opcode.getMnemonic() + '\n';
     }
 
-    public static String loadVariableToStack( ProgramCompiler.ValueType type, int index, String name ) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
+    public static String instruction(Opcode opcode, String operand) {
+        StringBuilder result = new StringBuilder(CODE_INDENT);
 
-        String typeSymbol = typeSymbols.get(type);
+        result.append(opcode.getMnemonic());
 
-        if ( typeSymbol == null ) {
-            throw new CompilationErrorException("values can be assigned only to integer and double type variables");
+        for (int i = opcode.getMnemonic().length(); i < MNEMONIC_WIDTH; i++) {
+            result.append(' ');
         }
 
-        result.append(CodeBuilder.CODE_INDENT)
-                .append(typeSymbol)
-                .append("load                 ")
-                .append(index)
-                .append("    ; variable \"")
-                .append(name)
-                .append("\" -> stack head")
-                .append("\n");
+        result.append(operand).append('\n');
 
         return result.toString();
     }
 
-    public static String loadVariableToStack( ProgramCompiler.Variable variable ) throws CompilationErrorException {
-        return loadVariableToStack(variable.getType(), variable.getIndex(), variable.getName());
+    public static String storeStackToVariable(Opcode opcode, int index, String name) {
+        return instruction(opcode, variableOperand(opcode, index) + "    ; stack head -> variable \"" + name + "\"");
     }
 
-    public static String loadValueToStack( ProgramCompiler.ValueType type, String value) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
-        switch (type) {
-            case I:
-                result.append(CodeBuilder.CODE_INDENT)
-                        .append("ldc                   ").append(value).append('\n');
-                break;
-
-            case D:
-                result.append(CodeBuilder.CODE_INDENT)
-                        .append("ldc2_w                ").append(value).append('\n');
-                break;
-
-            default:
-                throw new CompilationErrorException("Unknown type: " + type);
-        }
-
-        return result.toString();
+    public static String loadVariableToStack(Opcode opcode, int index, String name) {
+        return instruction(opcode, variableOperand(opcode, index) + "    ; variable \"" + name + "\" -> stack head");
     }
 
-    public static String operationOnStack(ProgramCompiler.ValueType type, StackOperation operation) {
-        return CODE_INDENT + typeSymbols.get(type) + operationCodes.get(operation) + '\n';
+    private static String variableOperand(Opcode opcode, int index) {
+        return opcode.hasImplicitIndex() ? "" : String.valueOf(index);
     }
 
-    public static String cast(ProgramCompiler.ValueType from, ProgramCompiler.ValueType to) {
-        return CODE_INDENT + typeSymbols.get(from) + "2" + typeSymbols.get(to) + '\n';
+    public static String comment(String text) {
+        return CODE_INDENT + "; " + text + '\n';
     }
 
-    public static String returnOperation(ProgramCompiler.ValueType type) {
-        return CODE_INDENT + typeSymbols.get(type) + "return" + '\n';
+    public static String label(String label) {
+        return label + ":\n";
     }
 
-    public static String getComparisonOperator(Token.Type type) {
-        if (comparisonOperators.containsKey(type)) {
-            return CODE_INDENT + comparisonOperators.get(type);
-        }
-
-        return CODE_INDENT + type.toString();
+    public static String endIf(int index) {
+        return "L" + index + "_end_if";
     }
 
-    public static String getGoto(String label) {
-        return CODE_INDENT + "goto " + label;
+    public static String startElseIf(int index, int number) {
+        return "L" + index + "_start_else_if_" + number;
     }
 
-    public static String startIf(int index) {
-        return index + "_start_if";
+    public static String startElse(int index) {
+        return "L" + index + "_start_else";
     }
 
-    public static String endIf(int index) {
-        return index + "_end_if";
+    public static String loopBody(int index) {
+        return "L" + index + "_loop_body";
     }
 
-    public static String startElseIf(int index, int number) {
-        return index + "_start_else_if_" + number;
+    public static String loopCondition(int index) {
+        return "L" + index + "_loop_condition";
     }
 
-    public static String endElseIf(int index, int number) {
-        return index + "_end_else_if_" + number;
+    // labels inside of logical expressions
+    public static String conditionLabel(int index) {
+        return "L" + index + "_condition";
     }
 }
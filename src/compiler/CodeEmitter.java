@@ -0,0 +1,31 @@
+package compiler;
+
+// receives the instruction stream produced by ProgramCompiler
+// and turns it into some output format (Jasmin text, class file, ...)
+public interface CodeEmitter {
+    public void beginClass(String className) throws CompilationErrorException;
+    public void endClass() throws CompilationErrorException;
+
+    public void beginMethod(String name, String descriptor) throws CompilationErrorException;
+    public void endMethod(int maxStack, int maxLocals) throws CompilationErrorException;
+
+    // instruction without operands
+    public void instruction(Opcode opcode) throws CompilationErrorException;
+
+    // ldc / ldc2_w of integer or double literal
+    public void constant(ProgramCompiler.ValueType type, String value) throws CompilationErrorException;
+
+    // bipush / sipush of small integer or newarray of element type
+    public void push(Opcode opcode, int value) throws CompilationErrorException;
+
+    // load / store of local variable
+    public void variable(Opcode opcode, int index, String name) throws CompilationErrorException;
+
+    public void jump(Opcode opcode, String label) throws CompilationErrorException;
+    public void label(String label) throws CompilationErrorException;
+
+    public void field(Opcode opcode, String owner, String name, String descriptor) throws CompilationErrorException;
+    public void invoke(Opcode opcode, String owner, String name, String descriptor) throws CompilationErrorException;
+
+    public void comment(String text) throws CompilationErrorException;
+}
@@ -0,0 +1,225 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// emitter, which only records received code, so that it can be written to other emitter later
+public class InstructionList implements CodeEmitter {
+    public enum Kind {
+        BEGIN_CLASS,
+        END_CLASS,
+        BEGIN_METHOD,
+        END_METHOD,
+        INSTRUCTION,
+        CONSTANT,
+        PUSH,
+        VARIABLE,
+        JUMP,
+        LABEL,
+        FIELD,
+        INVOKE,
+        COMMENT
+    }
+
+    public static class Instruction {
+        private final Kind kind;
+        private final Opcode opcode;
+
+        // name, label, constant value or comment text
+        private final String name;
+        private final String owner;
+        private final String descriptor;
+
+        private final ProgramCompiler.ValueType type;
+
+        // local variable index, pushed value or max stack
+        private final int index;
+        private final int maxLocals;
+
+        private Instruction(Kind kind, Opcode opcode, String name, String owner, String descriptor,
+                            ProgramCompiler.ValueType type, int index, int maxLocals) {
+            this.kind = kind;
+            this.opcode = opcode;
+            this.name = name;
+            this.owner = owner;
+            this.descriptor = descriptor;
+            this.type = type;
+            this.index = index;
+            this.maxLocals = maxLocals;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public Opcode getOpcode() {
+            return opcode;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public String getDescriptor() {
+            return descriptor;
+        }
+
+        public ProgramCompiler.ValueType getType() {
+            return type;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getMaxLocals() {
+            return maxLocals;
+        }
+
+        public void writeTo(CodeEmitter emitter) throws CompilationErrorException {
+            switch (kind) {
+                case BEGIN_CLASS:
+                    emitter.beginClass(name);
+                    break;
+                case END_CLASS:
+                    emitter.endClass();
+                    break;
+                case BEGIN_METHOD:
+                    emitter.beginMethod(name, descriptor);
+                    break;
+                case END_METHOD:
+                    emitter.endMethod(index, maxLocals);
+                    break;
+                case INSTRUCTION:
+                    emitter.instruction(opcode);
+                    break;
+                case CONSTANT:
+                    emitter.constant(type, name);
+                    break;
+                case PUSH:
+                    emitter.push(opcode, index);
+                    break;
+                case VARIABLE:
+                    emitter.variable(opcode, index, name);
+                    break;
+                case JUMP:
+                    emitter.jump(opcode, name);
+                    break;
+                case LABEL:
+                    emitter.label(name);
+                    break;
+                case FIELD:
+                    emitter.field(opcode, owner, name, descriptor);
+                    break;
+                case INVOKE:
+                    emitter.invoke(opcode, owner, name, descriptor);
+                    break;
+                case COMMENT:
+                    emitter.comment(name);
+                    break;
+            }
+        }
+    }
+
+    private final List<Instruction> instructions = new ArrayList<>();
+
+    public List<Instruction> getInstructions() {
+        return instructions;
+    }
+
+    public int size() {
+        return instructions.size();
+    }
+
+    // max stack of recorded methods is set, when their final code is known
+    public void setMaxStack(int maxStack) {
+        for (int i = 0; i < instructions.size(); i++) {
+            Instruction instruction = instructions.get(i);
+
+            if (instruction.kind == Kind.END_METHOD) {
+                instructions.set(i, new Instruction(Kind.END_METHOD, null, null, null, null, null, maxStack, instruction.maxLocals));
+            }
+        }
+    }
+
+    // write all recorded code to emitter in order it was received
+    public void replay(CodeEmitter emitter) throws CompilationErrorException {
+        for (Instruction instruction : instructions) {
+            instruction.writeTo(emitter);
+        }
+    }
+
+    @Override
+    public void beginClass(String className) {
+        add(Kind.BEGIN_CLASS, null, className, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void endClass() {
+        add(Kind.END_CLASS, null, null, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void beginMethod(String name, String descriptor) {
+        add(Kind.BEGIN_METHOD, null, name, null, descriptor, null, 0, 0);
+    }
+
+    @Override
+    public void endMethod(int maxStack, int maxLocals) {
+        add(Kind.END_METHOD, null, null, null, null, null, maxStack, maxLocals);
+    }
+
+    @Override
+    public void instruction(Opcode opcode) {
+        add(Kind.INSTRUCTION, opcode, null, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void constant(ProgramCompiler.ValueType type, String value) {
+        add(Kind.CONSTANT, null, value, null, null, type, 0, 0);
+    }
+
+    @Override
+    public void push(Opcode opcode, int value) {
+        add(Kind.PUSH, opcode, null, null, null, null, value, 0);
+    }
+
+    @Override
+    public void variable(Opcode opcode, int index, String name) {
+        add(Kind.VARIABLE, opcode, name, null, null, null, index, 0);
+    }
+
+    @Override
+    public void jump(Opcode opcode, String label) {
+        add(Kind.JUMP, opcode, label, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void label(String label) {
+        add(Kind.LABEL, null, label, null, null, null, 0, 0);
+    }
+
+    @Override
+    public void field(Opcode opcode, String owner, String name, String descriptor) {
+        add(Kind.FIELD, opcode, name, owner, descriptor, null, 0, 0);
+    }
+
+    @Override
+    public void invoke(Opcode opcode, String owner, String name, String descriptor) {
+        add(Kind.INVOKE, opcode, name, owner, descriptor, null, 0, 0);
+    }
+
+    @Override
+    public void comment(String text) {
+        add(Kind.COMMENT, null, text, null, null, null, 0, 0);
+    }
+
+    private void add(Kind kind, Opcode opcode, String name, String owner, String descriptor,
+                     ProgramCompiler.ValueType type, int index, int maxLocals) {
+        instructions.add(new Instruction(kind, opcode, name, owner, descriptor, type, index, maxLocals));
+    }
+}
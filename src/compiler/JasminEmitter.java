@@ -0,0 +1,158 @@
+package compiler;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+// emits Jasmin assembly text, which has to be assembled by external tool,
+// code is written to output as soon as each method is finished
+public class JasminEmitter implements CodeEmitter {
+    private Writer out;
+
+    // not null, when code is collected in memory
+    private StringWriter code;
+
+    // body of current method, method limits must be written before it
+    private StringBuilder methodBody = new StringBuilder();
+    private String methodSignature;
+
+    public JasminEmitter() {
+        code = new StringWriter();
+        out = code;
+    }
+
+    public JasminEmitter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void beginClass(String className) throws CompilationErrorException {
+        write(CodeBuilder.classHeader(className));
+        write(CodeBuilder.CODE_CONSTRUCTOR);
+    }
+
+    @Override
+    public void endClass() throws CompilationErrorException {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write code: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void beginMethod(String name, String descriptor) {
+        if (name.equals("main")) {
+            methodSignature = CodeBuilder.METHOD_MAIN_SIGNATURE;
+        } else {
+            methodSignature = CodeBuilder.methodDeclarationHeader(name + descriptor);
+        }
+
+        methodBody.setLength(0);
+    }
+
+    @Override
+    public void endMethod(int maxStack, int maxLocals) throws CompilationErrorException {
+        write(methodSignature);
+        write(CodeBuilder.methodLimits(maxStack, maxLocals));
+        write(methodBody);
+        write(CodeBuilder.METHOD_END);
+
+        methodSignature = null;
+    }
+
+    @Override
+    public void instruction(Opcode opcode) {
+        methodBody.append(CodeBuilder.instruction(opcode));
+    }
+
+    @Override
+    public void constant(ProgramCompiler.ValueType type, String value) throws CompilationErrorException {
+        switch (type) {
+            case I:
+                methodBody.append(CodeBuilder.instruction(Opcode.LDC, value));
+                break;
+
+            case D:
+                methodBody.append(CodeBuilder.instruction(Opcode.LDC2_W, value));
+                break;
+
+            default:
+                throw new CompilationErrorException("Unknown type: " + type);
+        }
+    }
+
+    @Override
+    public void push(Opcode opcode, int value) {
+        if (opcode == Opcode.NEWARRAY) {
+            methodBody.append(CodeBuilder.instruction(opcode, value == Opcode.T_INT ? "int" : "double"));
+        } else {
+            methodBody.append(CodeBuilder.instruction(opcode, String.valueOf(value)));
+        }
+    }
+
+    @Override
+    public void variable(Opcode opcode, int index, String name) {
+        switch (opcode) {
+            case ISTORE:
+            case DSTORE:
+            case ISTORE_0:
+            case ISTORE_1:
+            case ISTORE_2:
+            case ISTORE_3:
+            case DSTORE_0:
+            case DSTORE_1:
+            case DSTORE_2:
+            case DSTORE_3:
+            case ASTORE:
+            case ASTORE_0:
+            case ASTORE_1:
+            case ASTORE_2:
+            case ASTORE_3:
+                methodBody.append(CodeBuilder.storeStackToVariable(opcode, index, name));
+                break;
+
+            default:
+                methodBody.append(CodeBuilder.loadVariableToStack(opcode, index, name));
+                break;
+        }
+    }
+
+    @Override
+    public void jump(Opcode opcode, String label) {
+        methodBody.append(CodeBuilder.instruction(opcode, label));
+    }
+
+    @Override
+    public void label(String label) {
+        methodBody.append(CodeBuilder.label(label));
+    }
+
+    @Override
+    public void field(Opcode opcode, String owner, String name, String descriptor) {
+        methodBody.append(CodeBuilder.instruction(opcode, owner + "/" + name + " " + descriptor));
+    }
+
+    @Override
+    public void invoke(Opcode opcode, String owner, String name, String descriptor) {
+        methodBody.append(CodeBuilder.instruction(opcode, owner + "/" + name + descriptor));
+    }
+
+    @Override
+    public void comment(String text) {
+        methodBody.append(CodeBuilder.comment(text));
+    }
+
+    // code collected in memory, only for emitter created without output
+    public String getCode() {
+        return code.toString();
+    }
+
+    private void write(CharSequence text) throws CompilationErrorException {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write code: " + e.getMessage());
+        }
+    }
+}
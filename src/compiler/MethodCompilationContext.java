@@ -0,0 +1,64 @@
+package compiler;
+
+import compiler.ir.IrBuilder;
+import compiler.ir.Register;
+import parser.nodes.MethodNode;
+
+import java.util.Arrays;
+
+// state of compilation of one method, every method gets its own context,
+// so that methods can be compiled at the same time
+public class MethodCompilationContext {
+    private final MethodNode method;
+
+    // method code is built as IR and turned to instructions, when whole method is compiled
+    private final IrBuilder code = new IrBuilder();
+
+    // registers of variables of this method, indexed by symbol id of their name
+    private Register[] variables = new Register[16];
+
+    private int labelIndex = 0;
+
+    private ProgramCompiler.ValueType typeOnStack;
+
+    public MethodCompilationContext(MethodNode method) {
+        this.method = method;
+    }
+
+    public MethodNode getMethod() {
+        return method;
+    }
+
+    public IrBuilder getCode() {
+        return code;
+    }
+
+    public ProgramCompiler.ValueType getTypeOnStack() {
+        return typeOnStack;
+    }
+
+    public void setTypeOnStack(ProgramCompiler.ValueType typeOnStack) {
+        this.typeOnStack = typeOnStack;
+    }
+
+    public int nextLabelIndex() {
+        return labelIndex++;
+    }
+
+    public Register declareVariable(int symbol, String name, ProgramCompiler.ValueType type) {
+        Register register = code.newRegister(name, type);
+
+        if (symbol >= variables.length) {
+            variables = Arrays.copyOf(variables, Math.max(variables.length * 2, symbol + 1));
+        }
+
+        variables[symbol] = register;
+
+        return register;
+    }
+
+    // register of variable with given name symbol or null, if it was not declared
+    public Register getVariable(int symbol) {
+        return symbol < variables.length ? variables[symbol] : null;
+    }
+}
@@ -0,0 +1,124 @@
+package compiler;
+
+import java.util.Arrays;
+
+// immutable signature of declared method, descriptor is built once, when signature is created
+public final class MethodSignature {
+    private final String name;
+    private final ProgramCompiler.ValueType[] parameterTypes;
+    private final ProgramCompiler.ValueType resultType;
+    private final String descriptor;
+
+    public MethodSignature(String name, ProgramCompiler.ValueType[] parameterTypes, ProgramCompiler.ValueType resultType) {
+        this(name, parameterTypes, resultType, descriptor(parameterTypes, resultType));
+    }
+
+    public MethodSignature(String name, ProgramCompiler.ValueType[] parameterTypes, ProgramCompiler.ValueType resultType, String descriptor) {
+        this.name = name;
+        this.parameterTypes = parameterTypes.clone();
+        this.resultType = resultType;
+        this.descriptor = descriptor;
+    }
+
+    private static String descriptor(ProgramCompiler.ValueType[] parameterTypes, ProgramCompiler.ValueType resultType) {
+        StringBuilder result = new StringBuilder("(");
+
+        for (ProgramCompiler.ValueType type : parameterTypes) {
+            result.append(type);
+        }
+
+        result.append(")");
+        result.append(resultType);
+
+        return result.toString();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParametersCount() {
+        return parameterTypes.length;
+    }
+
+    public ProgramCompiler.ValueType getParameterType(int index) {
+        return parameterTypes[index];
+    }
+
+    public ProgramCompiler.ValueType getResultType() {
+        return resultType;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    // local variable words taken by arguments, main gets String[] not listed in parameter types
+    public int getArgumentsSize() {
+        return argumentsSize(descriptor);
+    }
+
+    public static int argumentsSize(String descriptor) {
+        int size = 0;
+
+        for (int i = descriptor.indexOf('(') + 1; descriptor.charAt(i) != ')'; i++) {
+            boolean isArray = false;
+
+            while (descriptor.charAt(i) == '[') {
+                isArray = true;
+                i++;
+            }
+
+            char type = descriptor.charAt(i);
+
+            if (type == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+
+            // arrays and objects are references of one word
+            size += !isArray && (type == 'D' || type == 'J') ? 2 : 1;
+        }
+
+        return size;
+    }
+
+    // stack words taken by result of method with given descriptor
+    public static int resultSize(String descriptor) {
+        return typeSize(descriptor.substring(descriptor.indexOf(')') + 1));
+    }
+
+    // stack words taken by value of type with given descriptor
+    public static int typeSize(String descriptor) {
+        switch (descriptor) {
+            case "V":
+                return 0;
+            case "D":
+            case "J":
+                return 2;
+            default:
+                return 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + descriptor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        MethodSignature signature = (MethodSignature) o;
+
+        return name.equals(signature.name)
+                && descriptor.equals(signature.descriptor)
+                && Arrays.equals(parameterTypes, signature.parameterTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + descriptor.hashCode();
+    }
+}
@@ -0,0 +1,333 @@
+package compiler;
+
+import compiler.ir.Condition;
+
+public enum Opcode {
+    ICONST_M1(0x02, 0, 1),
+    ICONST_0(0x03, 0, 1),
+    ICONST_1(0x04, 0, 1),
+    ICONST_2(0x05, 0, 1),
+    ICONST_3(0x06, 0, 1),
+    ICONST_4(0x07, 0, 1),
+    ICONST_5(0x08, 0, 1),
+    DCONST_0(0x0e, 0, 2),
+    DCONST_1(0x0f, 0, 2),
+    BIPUSH(0x10, 0, 1),
+    SIPUSH(0x11, 0, 1),
+    LDC(0x12, 0, 1),
+    LDC2_W(0x14, 0, 2),
+
+    ILOAD(0x15, 0, 1),
+    DLOAD(0x18, 0, 2),
+    ILOAD_0(0x1a, 0, 1),
+    ILOAD_1(0x1b, 0, 1),
+    ILOAD_2(0x1c, 0, 1),
+    ILOAD_3(0x1d, 0, 1),
+    DLOAD_0(0x26, 0, 2),
+    DLOAD_1(0x27, 0, 2),
+    DLOAD_2(0x28, 0, 2),
+    DLOAD_3(0x29, 0, 2),
+    ALOAD(0x19, 0, 1),
+    ALOAD_0(0x2a, 0, 1),
+    ALOAD_1(0x2b, 0, 1),
+    ALOAD_2(0x2c, 0, 1),
+    ALOAD_3(0x2d, 0, 1),
+    IALOAD(0x2e, 2, 1),
+    DALOAD(0x31, 2, 2),
+
+    ISTORE(0x36, 1, 0),
+    DSTORE(0x39, 2, 0),
+    ISTORE_0(0x3b, 1, 0),
+    ISTORE_1(0x3c, 1, 0),
+    ISTORE_2(0x3d, 1, 0),
+    ISTORE_3(0x3e, 1, 0),
+    DSTORE_0(0x47, 2, 0),
+    DSTORE_1(0x48, 2, 0),
+    DSTORE_2(0x49, 2, 0),
+    DSTORE_3(0x4a, 2, 0),
+    ASTORE(0x3a, 1, 0),
+    ASTORE_0(0x4b, 1, 0),
+    ASTORE_1(0x4c, 1, 0),
+    ASTORE_2(0x4d, 1, 0),
+    ASTORE_3(0x4e, 1, 0),
+    IASTORE(0x4f, 3, 0),
+    DASTORE(0x52, 4, 0),
+
+    POP(0x57, 1, 0),
+    POP2(0x58, 2, 0),
+    DUP(0x59, 1, 2),
+    DUP2(0x5c, 2, 4),
+    DUP2_X1(0x5d, 3, 5),
+    DUP2_X2(0x5e, 4, 6),
+
+    IADD(0x60, 2, 1),
+    DADD(0x63, 4, 2),
+    ISUB(0x64, 2, 1),
+    DSUB(0x67, 4, 2),
+    IMUL(0x68, 2, 1),
+    DMUL(0x6b, 4, 2),
+    IDIV(0x6c, 2, 1),
+    DDIV(0x6f, 4, 2),
+    INEG(0x74, 1, 1),
+    DNEG(0x77, 2, 2),
+
+    I2D(0x87, 1, 2),
+    D2I(0x8e, 2, 1),
+
+    DCMPL(0x97, 4, 1),
+    DCMPG(0x98, 4, 1),
+
+    IFEQ(0x99, 1, 0),
+    IFNE(0x9a, 1, 0),
+    IFLT(0x9b, 1, 0),
+    IFGE(0x9c, 1, 0),
+    IFGT(0x9d, 1, 0),
+    IFLE(0x9e, 1, 0),
+
+    IF_ICMPEQ(0x9f, 2, 0),
+    IF_ICMPNE(0xa0, 2, 0),
+    IF_ICMPLT(0xa1, 2, 0),
+    IF_ICMPGE(0xa2, 2, 0),
+    IF_ICMPGT(0xa3, 2, 0),
+    IF_ICMPLE(0xa4, 2, 0),
+
+    GOTO(0xa7, 0, 0),
+
+    IRETURN(0xac, 1, 0),
+    DRETURN(0xaf, 2, 0),
+    RETURN(0xb1, 0, 0),
+
+    GETSTATIC(0xb2, -1, -1),
+    INVOKEVIRTUAL(0xb6, -1, -1),
+    INVOKESPECIAL(0xb7, -1, -1),
+    INVOKESTATIC(0xb8, -1, -1),
+
+    NEWARRAY(0xbc, 1, 1);
+
+    // stack effect of invocations and field access (-1 above) depends on descriptor
+    public static final int VARIABLE_EFFECT = -1;
+
+    // element type operand of newarray
+    public static final int T_DOUBLE = 7;
+    public static final int T_INT = 10;
+
+    private final int code;
+
+    // words taken from and put to operand stack
+    private final int popped;
+    private final int pushed;
+
+    Opcode(int code, int popped, int pushed) {
+        this.code = code;
+        this.popped = popped;
+        this.pushed = pushed;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public int getPopped() {
+        return popped;
+    }
+
+    public int getPushed() {
+        return pushed;
+    }
+
+    // control never continues to the next instruction
+    public boolean isTerminator() {
+        return this == GOTO || this == IRETURN || this == DRETURN || this == RETURN;
+    }
+
+    public String getMnemonic() {
+        return name().toLowerCase();
+    }
+
+    // load / store, which encodes local variable index in opcode itself
+    public boolean hasImplicitIndex() {
+        return (code >= ILOAD_0.code && code <= ALOAD_3.code) || (code >= ISTORE_0.code && code <= ASTORE_3.code);
+    }
+
+    // iload_0 .. dstore_3 form of given load / store or null, if there is none for this index
+    public static Opcode shortVariable(Opcode opcode, int index) {
+        if (index < 0 || index > 3) {
+            return null;
+        }
+
+        switch (opcode) {
+            case ILOAD:
+                return values()[ILOAD_0.ordinal() + index];
+            case DLOAD:
+                return values()[DLOAD_0.ordinal() + index];
+            case ISTORE:
+                return values()[ISTORE_0.ordinal() + index];
+            case DSTORE:
+                return values()[DSTORE_0.ordinal() + index];
+            case ALOAD:
+                return values()[ALOAD_0.ordinal() + index];
+            case ASTORE:
+                return values()[ASTORE_0.ordinal() + index];
+            default:
+                return null;
+        }
+    }
+
+    // iconst_m1 .. iconst_5 pushing given value or null
+    public static Opcode integerConstant(int value) {
+        if (value < -1 || value > 5) {
+            return null;
+        }
+
+        return values()[ICONST_0.ordinal() + value];
+    }
+
+    public static Opcode load(ProgramCompiler.ValueType type) throws CompilationErrorException {
+        switch (type) {
+            case I:
+                return ILOAD;
+            case D:
+                return DLOAD;
+            case IA:
+            case DA:
+                return ALOAD;
+            default:
+                throw new CompilationErrorException("values can be loaded only from integer and double type variables");
+        }
+    }
+
+    public static Opcode store(ProgramCompiler.ValueType type) throws CompilationErrorException {
+        switch (type) {
+            case I:
+                return ISTORE;
+            case D:
+                return DSTORE;
+            case IA:
+            case DA:
+                return ASTORE;
+            default:
+                throw new CompilationErrorException("values can be assigned only to integer and double type variables");
+        }
+    }
+
+    // load of array element, array and index are on stack
+    public static Opcode arrayLoad(ProgramCompiler.ValueType elementType) throws CompilationErrorException {
+        switch (elementType) {
+            case I:
+                return IALOAD;
+            case D:
+                return DALOAD;
+            default:
+                throw new CompilationErrorException("Arrays can have only integer and double elements");
+        }
+    }
+
+    // store of array element, array, index and value are on stack
+    public static Opcode arrayStore(ProgramCompiler.ValueType elementType) throws CompilationErrorException {
+        switch (elementType) {
+            case I:
+                return IASTORE;
+            case D:
+                return DASTORE;
+            default:
+                throw new CompilationErrorException("Arrays can have only integer and double elements");
+        }
+    }
+
+    // newarray operand for given element type
+    public static int arrayType(ProgramCompiler.ValueType elementType) throws CompilationErrorException {
+        switch (elementType) {
+            case I:
+                return T_INT;
+            case D:
+                return T_DOUBLE;
+            default:
+                throw new CompilationErrorException("Arrays can have only integer and double elements");
+        }
+    }
+
+    public static Opcode operation(ProgramCompiler.ValueType type, CodeBuilder.StackOperation operation) throws CompilationErrorException {
+        boolean isInteger;
+
+        switch (type) {
+            case I:
+                isInteger = true;
+                break;
+            case D:
+                isInteger = false;
+                break;
+            default:
+                throw new CompilationErrorException("Unknown type: " + type);
+        }
+
+        switch (operation) {
+            case ADD:
+                return isInteger ? IADD : DADD;
+            case SUB:
+                return isInteger ? ISUB : DSUB;
+            case MUL:
+                return isInteger ? IMUL : DMUL;
+            case DIV:
+                return isInteger ? IDIV : DDIV;
+            default:
+                throw new CompilationErrorException("Unknown operation: " + operation);
+        }
+    }
+
+    public static Opcode cast(ProgramCompiler.ValueType from, ProgramCompiler.ValueType to) throws CompilationErrorException {
+        if (from == ProgramCompiler.ValueType.I && to == ProgramCompiler.ValueType.D) {
+            return I2D;
+        } else if (from == ProgramCompiler.ValueType.D && to == ProgramCompiler.ValueType.I) {
+            return D2I;
+        }
+
+        throw new CompilationErrorException("Cannot cast " + from + " to " + to);
+    }
+
+    public static Opcode returnOperation(ProgramCompiler.ValueType type) {
+        switch (type) {
+            case I:
+                return IRETURN;
+            case D:
+                return DRETURN;
+            default:
+                return RETURN;
+        }
+    }
+
+    // jump comparing int on stack with zero
+    public static Opcode comparison(Condition condition) {
+        switch (condition) {
+            case EQ:
+                return IFEQ;
+            case NE:
+                return IFNE;
+            case GT:
+                return IFGT;
+            case GE:
+                return IFGE;
+            case LT:
+                return IFLT;
+            default:
+                return IFLE;
+        }
+    }
+
+    // jump comparing two ints on stack
+    public static Opcode integerComparison(Condition condition) {
+        switch (condition) {
+            case EQ:
+                return IF_ICMPEQ;
+            case NE:
+                return IF_ICMPNE;
+            case GT:
+                return IF_ICMPGT;
+            case GE:
+                return IF_ICMPGE;
+            case LT:
+                return IF_ICMPLT;
+            default:
+                return IF_ICMPLE;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package compiler;
+
+import java.util.List;
+
+// rewrites recorded method code to shorter equivalent instruction sequences,
+// looking only at few neighbouring instructions at once
+public class PeepholeOptimizer {
+    private int rewrittenCount = 0;
+
+    public int getRewrittenCount() {
+        return rewrittenCount;
+    }
+
+    public InstructionList optimize(InstructionList code) throws CompilationErrorException {
+        List<InstructionList.Instruction> instructions = code.getInstructions();
+        InstructionList result = new InstructionList();
+
+        int i = 0;
+        while (i < instructions.size()) {
+            InstructionList.Instruction instruction = instructions.get(i);
+
+            switch (instruction.getKind()) {
+                case CONSTANT:
+                    constant(result, instruction);
+                    break;
+
+                case INSTRUCTION:
+                    if (isSwapBeforeCommutative(instructions, i)) {
+                        // dup2_x2; pop2 swaps two doubles, order does not matter for dadd and dmul
+                        rewrittenCount++;
+                        i += 2;
+                        continue;
+                    }
+
+                    instruction.writeTo(result);
+                    break;
+
+                case VARIABLE:
+                    InstructionList.Instruction following = next(instructions, i + 1);
+
+                    if (isSameVariable(instruction, following, isStore(instruction.getOpcode()))) {
+                        if (isStore(instruction.getOpcode())) {
+                            // store x; load x -> dup; store x
+                            result.instruction(instruction.getOpcode() == Opcode.ISTORE ? Opcode.DUP : Opcode.DUP2);
+                            variable(result, instruction);
+                        }
+                        // load x; store x does nothing
+
+                        rewrittenCount++;
+                        i += 2;
+                        continue;
+                    }
+
+                    variable(result, instruction);
+                    break;
+
+                case JUMP:
+                    if (instruction.getOpcode() == Opcode.GOTO && isFollowedByLabel(instructions, i + 1, instruction.getName())) {
+                        rewrittenCount++;
+                        break;
+                    }
+
+                    instruction.writeTo(result);
+                    break;
+
+                default:
+                    instruction.writeTo(result);
+                    break;
+            }
+
+            i++;
+        }
+
+        return result;
+    }
+
+    private static InstructionList.Instruction next(List<InstructionList.Instruction> instructions, int index) {
+        return index < instructions.size() ? instructions.get(index) : null;
+    }
+
+    private static boolean isStore(Opcode opcode) {
+        return opcode == Opcode.ISTORE || opcode == Opcode.DSTORE;
+    }
+
+    // store x; load x or load x; store x of the same variable
+    private static boolean isSameVariable(InstructionList.Instruction first, InstructionList.Instruction second, boolean storeFirst) {
+        if (second == null || second.getKind() != InstructionList.Kind.VARIABLE || first.getIndex() != second.getIndex()) {
+            return false;
+        }
+
+        Opcode store = storeFirst ? first.getOpcode() : second.getOpcode();
+        Opcode load = storeFirst ? second.getOpcode() : first.getOpcode();
+
+        return (store == Opcode.ISTORE && load == Opcode.ILOAD) || (store == Opcode.DSTORE && load == Opcode.DLOAD);
+    }
+
+    // dup2_x2; pop2; dadd / dmul
+    private static boolean isSwapBeforeCommutative(List<InstructionList.Instruction> instructions, int index) {
+        InstructionList.Instruction pop = next(instructions, index + 1);
+        InstructionList.Instruction operation = next(instructions, index + 2);
+
+        return instructions.get(index).getOpcode() == Opcode.DUP2_X2
+                && pop != null && pop.getKind() == InstructionList.Kind.INSTRUCTION && pop.getOpcode() == Opcode.POP2
+                && operation != null && operation.getKind() == InstructionList.Kind.INSTRUCTION
+                && (operation.getOpcode() == Opcode.DADD || operation.getOpcode() == Opcode.DMUL);
+    }
+
+    private static boolean isFollowedByLabel(List<InstructionList.Instruction> instructions, int index, String label) {
+        for (int i = index; i < instructions.size(); i++) {
+            InstructionList.Instruction instruction = instructions.get(i);
+
+            if (instruction.getKind() == InstructionList.Kind.LABEL) {
+                if (instruction.getName().equals(label)) {
+                    return true;
+                }
+            } else if (instruction.getKind() != InstructionList.Kind.COMMENT) {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private void constant(InstructionList result, InstructionList.Instruction instruction) throws CompilationErrorException {
+        String value = instruction.getName();
+
+        try {
+            switch (instruction.getType()) {
+                case I:
+                    int integer = Integer.parseInt(value);
+                    Opcode shortConstant = Opcode.integerConstant(integer);
+
+                    if (shortConstant != null) {
+                        result.instruction(shortConstant);
+                    } else if (integer >= Byte.MIN_VALUE && integer <= Byte.MAX_VALUE) {
+                        result.push(Opcode.BIPUSH, integer);
+                    } else if (integer >= Short.MIN_VALUE && integer <= Short.MAX_VALUE) {
+                        result.push(Opcode.SIPUSH, integer);
+                    } else {
+                        result.constant(instruction.getType(), value);
+                        return;
+                    }
+
+                    rewrittenCount++;
+                    return;
+
+                case D:
+                    double number = Double.parseDouble(value);
+
+                    // -0.0 has to stay ldc2_w, dconst_0 is positive zero
+                    if (Double.doubleToRawLongBits(number) == 0L) {
+                        result.instruction(Opcode.DCONST_0);
+                    } else if (number == 1.0) {
+                        result.instruction(Opcode.DCONST_1);
+                    } else {
+                        result.constant(instruction.getType(), value);
+                        return;
+                    }
+
+                    rewrittenCount++;
+                    return;
+
+                default:
+                    result.constant(instruction.getType(), value);
+            }
+        } catch (NumberFormatException e) {
+            throw new CompilationErrorException("Wrong " + instruction.getType() + " constant: " + value);
+        }
+    }
+
+    private void variable(InstructionList result, InstructionList.Instruction instruction) {
+        Opcode shortForm = Opcode.shortVariable(instruction.getOpcode(), instruction.getIndex());
+
+        if (shortForm != null) {
+            result.variable(shortForm, instruction.getIndex(), instruction.getName());
+            rewrittenCount++;
+        } else {
+            result.variable(instruction.getOpcode(), instruction.getIndex(), instruction.getName());
+        }
+    }
+}
@@ -1,48 +1,90 @@
 package compiler;
 
+import compiler.classfile.ClassFileEmitter;
+import compiler.ir.CodeGenerator;
+import compiler.ir.Condition;
+import compiler.ir.MethodIr;
+import compiler.ir.Register;
 import parser.nodes.*;
 import parser.nodes.conditional.ConditionalConstructionNode;
 import parser.nodes.conditional.ElseBlockNode;
 import parser.nodes.conditional.ElseIfBlockNode;
 import parser.nodes.conditional.IfBlockNode;
+import parser.nodes.loop.ForLoopNode;
+import parser.nodes.loop.LoopNode;
+import tokenizer.SymbolTable;
+import tokenizer.Token;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class ProgramCompiler {
     private static final String OUT_FILE_PATH = "./jasminOut/MainJasmin.j";
+    private static final String MAIN_DESCRIPTOR = "([Ljava/lang/String;)V";
+
+    public static final String CLASS_NAME = "MainJasmin";
+
+    private static final MethodSignature POW = new MethodSignature("pow", new ValueType[] {ValueType.D, ValueType.D}, ValueType.D);
 
     private Map<ValueNode.ValueType, ValueType> typeMap = new HashMap<>();
-    private Map<String, Variable> variableMap = new HashMap<>();
-    private Map<String, MethodNode> methodMap = new HashMap<>();
 
-    private int[] localVariables = new int[100];
-    private int stackDepth = 0;
-    private int maxStackDepth = 0;
+    // variables and methods are resolved by symbol id of their name
+    private SymbolTable symbols;
+    // true if symbol ids stored in nodes belong to symbols table
+    private boolean sharedSymbols;
+
+    // built before method bodies are compiled and only read after that
+    private SignatureTable signatures;
+
+    // method bodies are compiled in parallel
+    private final ForkJoinPool pool;
 
-    private int labelIndex = 0;
+    // recorded method code is rewritten by PeepholeOptimizer before it is written out
+    private boolean optimize = true;
 
-    private MethodNode currentMethod;
+    // name of generated class, the same for all methods
+    private String className = CLASS_NAME;
 
-    private ValueType typeOnStack;
+    // instructions written by the last compileProgram() call
+    private long instructionsCount = 0;
 
     public ProgramCompiler() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ProgramCompiler(ForkJoinPool pool) {
+        this.pool = pool;
+
         typeMap.put(ValueNode.ValueType.INTEGER_VALUE, ValueType.I);
         typeMap.put(ValueNode.ValueType.DOUBLE_VALUE, ValueType.D);
         typeMap.put(ValueNode.ValueType.VOID_VALUE, ValueType.V);
     }
 
+    public void setOptimize(boolean optimize) {
+        this.optimize = optimize;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public long getInstructionsCount() {
+        return instructionsCount;
+    }
+
     public void compileProgram(Node root) {
-        FileWriter writer;
         try {
             createFile();
-            writer = new FileWriter(new File(OUT_FILE_PATH));
         } catch (IOException e) {
             e.printStackTrace();
             System.err.println("Cannot open file: " + OUT_FILE_PATH);
@@ -50,448 +92,602 @@ public class ProgramCompiler {
             return;
         }
 
-        StringBuilder builder = new StringBuilder();
+        try (Writer writer = Files.newBufferedWriter(Paths.get(OUT_FILE_PATH))) {
+            compileProgram(root, writer);
+        } catch (IOException | CompilationErrorException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // compile program to Jasmin code, each method is written as soon as it is ready
+    public void compileProgram(Node root, Writer writer) throws CompilationErrorException {
+        compileProgram(root, new JasminEmitter(writer));
+    }
+
+    // compile program straight to class file bytes, no Jasmin assembler needed
+    public byte[] compileClassFile(Node root) throws CompilationErrorException {
+        ClassFileEmitter classFileEmitter = new ClassFileEmitter();
 
-        try {
-            builder.append(CodeBuilder.CODE_HEADER);
-            builder.append(CodeBuilder.CODE_CONSTRUCTOR);
+        compileProgram(root, classFileEmitter);
+
+        return classFileEmitter.toByteArray();
+    }
+
+    // class file is written to out at the end, method code is buffered until then, see ClassFileEmitter
+    public void compileClassFile(Node root, OutputStream out) throws CompilationErrorException {
+        compileProgram(root, new ClassFileEmitter(out));
+    }
+
+    public void compileProgram(Node root, CodeEmitter emitter) throws CompilationErrorException {
+        compileProgram(root, emitter, null);
+    }
+
+    // methods, which already have code in compiled map, are not compiled again and their code is written as it is,
+    // code of other methods is added to the map
+    public void compileProgram(Node root, CodeEmitter emitter, Map<MethodNode, InstructionList> compiled)
+            throws CompilationErrorException {
+        SymbolTable programSymbols = root instanceof ProgramNode ? ((ProgramNode) root).getSymbolTable() : null;
+
+        sharedSymbols = programSymbols != null;
+        symbols = sharedSymbols ? programSymbols : new SymbolTable();
+
+        // collect all signatures first, so that any method can be called from any other
+        signatures = collectSignatures(root);
 
-            for (Node method : root.getChildren()) {
-                builder.append(compileMethod(method));
+        List<Future<InstructionList>> tasks = new ArrayList<>();
+        instructionsCount = 0;
+
+        for (Node method : root.getChildren()) {
+            InstructionList code = compiled != null ? compiled.get(method) : null;
+
+            tasks.add(code != null
+                    ? CompletableFuture.completedFuture(code)
+                    : pool.submit(() -> compileMethod((MethodNode) method)));
+        }
+
+        emitter.beginClass(className);
+
+        // methods are written in source order, whichever finished first,
+        // and are dropped right after that, so only unwritten methods are kept in memory
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                InstructionList code = tasks.get(i).get();
+
+                code.replay(emitter);
+                tasks.set(i, null);
+                instructionsCount += code.size();
+
+                if (compiled != null) {
+                    compiled.put((MethodNode) root.getChild(i), code);
+                }
+            } catch (ExecutionException e) {
+                throw compilationError(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new CompilationErrorException("Compilation was interrupted");
             }
+        }
 
-            writer.write(builder.toString());
-            writer.flush();
-            writer.close();
-        } catch (IOException | CompilationErrorException e) {
-            e.printStackTrace();
+        emitter.endClass();
+    }
+
+    // pool wraps checked exceptions of tasks in RuntimeException and get() wraps them once more,
+    // original error of method is found in the chain of causes
+    private static CompilationErrorException compilationError(ExecutionException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof CompilationErrorException) {
+                return (CompilationErrorException) cause;
+            }
         }
+
+        return new CompilationErrorException("Method compilation failed: " + e.getCause());
     }
 
-    private String compileMethod(Node node) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+    private SignatureTable collectSignatures(Node root) throws CompilationErrorException {
+        SignatureTable.Builder builder = new SignatureTable.Builder();
 
-        variableMap = new HashMap<>();
-        Arrays.fill(localVariables, 0);
+        for (Node method : root.getChildren()) {
+            MethodNode methodNode = (MethodNode) method;
+            String name = methodNode.getName().getValue();
 
-        stackDepth = 0;
-        maxStackDepth = 0;
+            List<Node> parameters = methodNode.getVarList().getChildren();
+            ValueType[] parameterTypes = new ValueType[parameters.size()];
 
-        MethodNode methodNode = (MethodNode) node;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                parameterTypes[i] = typeMap.get(((VariableNode) parameters.get(i)).getVariableType());
+            }
 
-        methodMap.put(methodNode.getName().getValue(), methodNode);
+            ValueType resultType = typeMap.get(methodNode.getResultType());
 
-        currentMethod = methodNode;
+            MethodSignature signature = name.equals("main")
+                    ? new MethodSignature(name, parameterTypes, resultType, MAIN_DESCRIPTOR)
+                    : new MethodSignature(name, parameterTypes, resultType);
 
-        String signature;
-        // generate method signature
-        if (methodNode.getName().getValue().equals("main")) {
-            signature = CodeBuilder.METHOD_MAIN_SIGNATURE;
-        } else {
-            signature = CodeBuilder.methodDeclarationHeader(constructMethodDeclareSignature(methodNode));
+            builder.add(symbolOf(methodNode.getSymbol(), name), signature);
         }
 
-        List<Node> variables = methodNode.getVarList().getChildren();
+        return builder.build();
+    }
+
+    private InstructionList compileMethod(MethodNode methodNode) throws CompilationErrorException {
+        MethodCompilationContext context = new MethodCompilationContext(methodNode);
+
+        MethodSignature signature = signatures.get(symbolOf(methodNode.getSymbol(), methodNode.getName().getValue()));
+
+        List<Node> parameters = methodNode.getVarList().getChildren();
 
         // declare all variables
-        for (Node var : variables) {
+        for (Node var : parameters) {
             VariableNode variable = (VariableNode) var;
-            declareVariable(variable.getVariableName(), typeMap.get(variable.getVariableType()));
+            declareVariable(context, variable, typeMap.get(variable.getVariableType()));
         }
 
         // compile method body
-        builder.append(compileBody(methodNode.getBody()));
+        compileBody(context, methodNode.getBody());
 
         // write return for void result type
         if (methodNode.getResultType() == ValueNode.ValueType.VOID_VALUE) {
-            builder.append("   return\n");
+            context.getCode().returnValue(ValueType.V);
         }
 
-        String body = builder.toString();
+        MethodIr methodIr = context.getCode().build(signature, parameters.size());
 
-        builder.setLength(0);
+        InstructionList instructions = new InstructionList();
+        new CodeGenerator().generate(methodIr, instructions);
 
-        // reserve 2 words for temporary variable
-        int variablesAmount = 2;
-        for (Variable var : variableMap.values()) {
-            switch (var.type) {
-                case I:
-                    variablesAmount += 1;
-                    break;
-
-                case D:
-                    variablesAmount += 2;
-                    break;
-            }
+        if (optimize) {
+            instructions = new PeepholeOptimizer().optimize(instructions);
         }
 
-        String limits = CodeBuilder.methodLimits(maxStackDepth, variablesAmount);
-
-        String footer = CodeBuilder.METHOD_END;
-        currentMethod = null;
-
-        builder.append(signature).append(limits).append(body).append(footer);
+        instructions.setMaxStack(new StackAnalyzer().analyze(instructions));
 
-        return builder.toString();
+        return instructions;
     }
 
-    private String compileCommand(Node command) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+    private void compileCommand(MethodCompilationContext context, Node command) throws CompilationErrorException {
         switch (command.getNodeType()) {
             case ASSIGNED:
-                builder.append(compileAssignValue(command));
+                compileAssignValue(context, command);
+                break;
+
+            case ARRAY_ASSIGNED:
+                compileAssignArrayElement(context, (ArrayElementNode) command);
                 break;
 
             case RETURN:
-                builder.append(compileReturn(command));
+                compileReturn(context, command);
                 break;
 
             case PRINT:
-                builder.append(compilePrint(command));
+                compilePrint(context, command);
                 break;
 
             case DECLARE:
-                builder.append(compileVariableDeclaration(command));
+                compileVariableDeclaration(context, command);
                 break;
 
             case METHOD_CALL:
-                builder.append(compileMethodCall((MethodCallNode) command));
+                compileCallStatement(context, (MethodCallNode) command);
                 break;
 
             case CONDITIONAL_CONSTRUCTION:
-                builder.append(compileConditionalConstruction((ConditionalConstructionNode) command));
+                compileConditionalConstruction(context, (ConditionalConstructionNode) command);
                 break;
 
-            default:
-                builder.append(CodeBuilder.CODE_INDENT)
-                        .append("UNEXPECTED NODE\n");
+            case WHILE_LOOP:
+            case FOR_LOOP:
+                compileLoop(context, (LoopNode) command);
                 break;
-        }
 
-        return builder.toString();
+            default:
+                throw new CompilationErrorException("Unexpected command: " + command.getNodeType());
+        }
     }
 
-    private String compileConditionalConstruction(ConditionalConstructionNode conditionalConstruction) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
+    private void compileConditionalConstruction(MethodCompilationContext context, ConditionalConstructionNode conditionalConstruction) throws CompilationErrorException {
+        int localLabelIndex = context.nextLabelIndex();
+
+        List<ElseIfBlockNode> elseIfBlocks = conditionalConstruction.getElseIfBlockNodes();
+        String endLabel = CodeBuilder.endIf(localLabelIndex);
 
-        int localLabelIndex = labelIndex++;
+        IfBlockNode ifBlockNode = conditionalConstruction.getIfBlockNode();
 
-        result.append(compileIfBlock(conditionalConstruction.getIfBlockNode(), localLabelIndex));
+        String nextLabel = nextBlockLabel(conditionalConstruction, localLabelIndex, 0);
+        compileConditionalBlock(context, ifBlockNode.getCondition(), ifBlockNode.getBody(), nextLabel, endLabel);
 
-        if (conditionalConstruction.hasElseIfBlocks()) {
-            int number = 0;
-            for (ElseIfBlockNode elseIfBlockNode : conditionalConstruction.getElseIfBlockNodes()) {
-                result.append(compileElseIfBlock(elseIfBlockNode, localLabelIndex, number++));
-            }
+        for (int number = 0; number < elseIfBlocks.size(); number++) {
+            ElseIfBlockNode elseIfBlockNode = elseIfBlocks.get(number);
+
+            context.getCode().label(CodeBuilder.startElseIf(localLabelIndex, number));
+
+            nextLabel = nextBlockLabel(conditionalConstruction, localLabelIndex, number + 1);
+            compileConditionalBlock(context, elseIfBlockNode.getCondition(), elseIfBlockNode.getBody(), nextLabel, endLabel);
         }
 
         if (conditionalConstruction.hasElseBlock()) {
-            result.append(compileElseBlock(conditionalConstruction.getElseBlockNode(), localLabelIndex));
+            context.getCode().label(CodeBuilder.startElse(localLabelIndex));
+
+            compileBody(context, conditionalConstruction.getElseBlockNode().getBody());
         }
 
-        return result.toString();
+        context.getCode().label(endLabel);
     }
 
-    private String compileIfBlock(IfBlockNode ifBlockNode, int localLabelIndex) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
+    // label of block, which gets control, when condition of if or elseif block with given number is false
+    private String nextBlockLabel(ConditionalConstructionNode conditionalConstruction, int localLabelIndex, int elseIfNumber) {
+        if (elseIfNumber < conditionalConstruction.getElseIfBlockNodes().size()) {
+            return CodeBuilder.startElseIf(localLabelIndex, elseIfNumber);
+        } else if (conditionalConstruction.hasElseBlock()) {
+            return CodeBuilder.startElse(localLabelIndex);
+        }
 
-        Node condition = ifBlockNode.getCondition();
+        return CodeBuilder.endIf(localLabelIndex);
+    }
 
-        // condition
-        String startLabel = CodeBuilder.startIf(localLabelIndex);
-        String endLabel = CodeBuilder.endIf(localLabelIndex);
+    private void compileConditionalBlock(MethodCompilationContext context, Node condition, BodyNode body, String nextLabel, String endLabel) throws CompilationErrorException {
+        compileCondition(context, condition, false, nextLabel);
 
-        result.append(CodeBuilder.getComparisonOperator(condition.getValueToken().getType()))
-                .append(" ").append(startLabel)
-                .append('\n');
+        compileBody(context, body);
 
-        // goto
-        result.append(CodeBuilder.getGoto(endLabel)).append('\n');
+        // goto after block, which always returns, would be unreachable and may point after the end of method,
+        // which verifier rejects even for unreachable jump
+        if (!nextLabel.equals(endLabel) && canCompleteNormally(body)) {
+            context.getCode().jump(endLabel);
+        }
+    }
 
-        // start label
-        result.append(startLabel).append(":\n");
+    // condition is checked at the bottom, so that every iteration takes one backward branch
+    // and the first check is reached by jump from the loop entry
+    private void compileLoop(MethodCompilationContext context, LoopNode loop) throws CompilationErrorException {
+        int localLabelIndex = context.nextLabelIndex();
 
-        // body
-        result.append(compileBody(ifBlockNode.getBody()));
+        String bodyLabel = CodeBuilder.loopBody(localLabelIndex);
+        String conditionLabel = CodeBuilder.loopCondition(localLabelIndex);
 
-        // end label
-        result.append(endLabel).append(":\n\n");
+        ForLoopNode forLoop = loop.getNodeType() == NodeType.FOR_LOOP ? (ForLoopNode) loop : null;
 
-        return result.toString();
-    }
+        if (forLoop != null && forLoop.getInitialization() != null) {
+            compileCommand(context, forLoop.getInitialization());
+        }
+
+        context.getCode().jump(conditionLabel);
 
-    private String compileElseIfBlock(
-            ElseIfBlockNode elseIfBlockNode,
-            int localLabelIndex,
-            int elseIfNumber) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
+        context.getCode().label(bodyLabel);
+        compileBody(context, loop.getBody());
 
-        Node condition = elseIfBlockNode.getCondition();
+        if (forLoop != null && forLoop.getUpdate() != null && canCompleteNormally(loop.getBody())) {
+            compileCommand(context, forLoop.getUpdate());
+        }
 
-        String startLabel = CodeBuilder.startElseIf(localLabelIndex, elseIfNumber);
-        String endLabel = CodeBuilder.endElseIf(localLabelIndex, elseIfNumber);
+        context.getCode().label(conditionLabel);
+        compileCondition(context, loop.getCondition(), true, bodyLabel);
+    }
 
-        // condition
-        result.append(CodeBuilder.getComparisonOperator(condition.getValueToken().getType()))
-                .append(" ").append(startLabel)
-                .append('\n');
+    // false, when every path through body ends with return
+    private boolean canCompleteNormally(BodyNode body) {
+        for (Node command : body.getChildren()) {
+            if (!canCompleteNormally(command)) {
+                return false;
+            }
+        }
 
-        // goto
-        result.append(CodeBuilder.getGoto(endLabel)).append('\n');
+        return true;
+    }
 
-        // start label
-        result.append(startLabel).append(":\n");
+    // loops are expected to complete, as their condition is not evaluated here
+    private boolean canCompleteNormally(Node command) {
+        switch (command.getNodeType()) {
+            case RETURN:
+                return false;
 
-        // body
-        result.append(compileBody(elseIfBlockNode.getBody()));
+            case CONDITIONAL_CONSTRUCTION:
+                ConditionalConstructionNode conditionalConstruction = (ConditionalConstructionNode) command;
 
-        // end label
-        result.append(endLabel).append(":\n\n");
+                if (!conditionalConstruction.hasElseBlock()
+                        || canCompleteNormally(conditionalConstruction.getIfBlockNode().getBody())
+                        || canCompleteNormally(conditionalConstruction.getElseBlockNode().getBody())) {
+                    return true;
+                }
 
-        return result.toString();
-    }
+                for (ElseIfBlockNode elseIfBlock : conditionalConstruction.getElseIfBlockNodes()) {
+                    if (canCompleteNormally(elseIfBlock.getBody())) {
+                        return true;
+                    }
+                }
 
-    private String compileElseBlock(ElseBlockNode elseBlockNode, int localLabelIndex) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
+                return false;
 
-        // body
-        result.append(compileBody(elseBlockNode.getBody()));
+            default:
+                return true;
+        }
+    }
 
-        return result.toString();
+    private void compileBody(MethodCompilationContext context, BodyNode body) throws CompilationErrorException {
+        for (Node command : body.getChildren()) {
+            compileCommand(context, command);
+        }
     }
 
+    private void compileReturn(MethodCompilationContext context, Node command) throws CompilationErrorException {
+        Node expression = command.getChild(0);
 
-    private String compileBody(BodyNode body) throws CompilationErrorException {
-        StringBuilder result = new StringBuilder();
+        if (expression != null) {
+            compileExpression(context, command.getChild(0));
+        }
 
-        for (Node command : body.getChildren()) {
-            result.append(compileCommand(command));
+        ValueType expected = typeMap.get(context.getMethod().getResultType());
+
+        if (!context.getTypeOnStack().equals(expected)) {
+            context.getCode().cast(context.getTypeOnStack(), expected);
         }
 
-        return result.toString();
+        context.getCode().returnValue(expected);
     }
 
-    private String compileReturn(Node command) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+    private void compilePrint(MethodCompilationContext context, Node command) throws CompilationErrorException {
+        context.getCode().getStatic("java/lang/System", "out", "Ljava/io/PrintStream;");
 
         Node expression = command.getChild(0);
 
         if (expression != null) {
-            builder.append(compileExpression(command.getChild(0)));
+            compileExpression(context, expression);
         }
 
-        ValueType expected = typeMap.get(currentMethod.getResultType());
+        ValueType[] parameterTypes = {context.getTypeOnStack()};
 
-        if (!typeOnStack.equals(expected)) {
-            builder.append(CodeBuilder.cast(typeOnStack, expected));
-        }
-
-        builder.append(CodeBuilder.returnOperation(expected));
-
-        return builder.toString();
+        context.getCode().invokeVirtual("java/io/PrintStream", new MethodSignature("println", parameterTypes, ValueType.V));
     }
 
-    private String compilePrint(Node command) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+    private void compileAssignValue(MethodCompilationContext context, Node command) throws CompilationErrorException {
+        Node expression = command.getChild(0).getChild(0);
 
-        builder.append(CodeBuilder.CODE_INDENT)
-                .append("getstatic             java/lang/System/out Ljava/io/PrintStream;\n");
+        compileExpression(context, expression);
 
-        pushed(1);
+        Register variable = getVariable(context, (VariableNode) command);
 
-        Node expression = command.getChild(0);
+        if (variable.getType().isArray()) {
+            throw new CompilationErrorException(
+                    "Array '" + variable.getName() + "' cannot be assigned, only its elements can");
+        }
 
-        if (expression != null) {
-            builder.append(compileExpression(expression));
+        if ( context.getTypeOnStack() != variable.getType() ) {
+            context.getCode().cast(context.getTypeOnStack(), variable.getType());
         }
 
-        String type = typeOnStack.toString();
+        storeStackToVariable(context, variable);
+    }
 
-        builder.append(CodeBuilder.CODE_INDENT).append("invokevirtual         java/io/PrintStream/println(").append(type).append(")V\n");
+    // array a[element] = expression: array, index and value are pushed and stored by one instruction
+    private void compileAssignArrayElement(MethodCompilationContext context, ArrayElementNode element) throws CompilationErrorException {
+        ValueType elementType = loadArrayAndIndex(context, element);
 
-        return builder.toString();
-    }
+        compileExpression(context, element.getAssignOperator().getChild(0));
 
-    private String compileAssignValue(Node command) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+        if (context.getTypeOnStack() != elementType) {
+            context.getCode().cast(context.getTypeOnStack(), elementType);
+        }
 
-        Node expression = command.getChild(0).getChild(0);
+        context.getCode().arrayStore(elementType);
+    }
 
-        builder.append(compileExpression(expression));
+    private void compileVariableDeclaration(MethodCompilationContext context, Node command) throws CompilationErrorException {
+        VariableNode variable = (VariableNode) command.getChild(0);
+        ValueType type = typeMap.get(((TypeNode) command).getValueType());
 
-        Variable variable = variableMap.get(((VariableNode) command).getVariableName());
+        if (!variable.isArray()) {
+            declareVariable(context, variable, type);
+            return;
+        }
 
-        if ( typeOnStack != variable.type ) {
-            builder.append(CodeBuilder.cast(typeOnStack, variable.type));
+        if (type != ValueType.I && type != ValueType.D) {
+            throw new CompilationErrorException(
+                    "Array '" + variable.getVariableName() + "' must have integer or double elements");
         }
 
-        builder.append(storeStackToVariable(((VariableNode) command).getVariableName()));
+        // new array is created every time declaration is executed, its elements are zero
+        context.getCode().constant(ValueType.I, String.valueOf(variable.getArraySize()));
+        context.getCode().newArray(type);
 
-        return builder.toString();
+        Register array = context.declareVariable(symbolOf(variable), variable.getVariableName(), ValueType.arrayOf(type));
+        storeStackToVariable(context, array);
     }
 
-    private String compileVariableDeclaration(Node command) {
-        declareVariable(
-                ((VariableNode) command.getChild(0)).getVariableName(),
-                typeMap.get(((TypeNode) command).getValueType()));
+    private void compileExpression(MethodCompilationContext context, Node expression) throws CompilationErrorException {
+        switch (expression.getNodeType()) {
+            case EXPRESSION:
+            case TERM:
+            case FACTOR:
+                compileOperation(context, expression);
+                break;
+
+            case UNARY_OPERATION:
+                compileUnaryOperation(context, (UnaryOperationNode) expression);
+                break;
 
-        return "";
+            default:
+                compileAtom(context, expression);
+        }
     }
 
-    private String compileExpression(Node expression) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+    private void compileOperation(MethodCompilationContext context, Node operation) throws CompilationErrorException {
+        switch (operation.getValueToken().getType()) {
+            case PLUS:
+                compileArithmeticOperation(context, operation, CodeBuilder.StackOperation.ADD);
+                break;
+            case MINUS:
+                compileArithmeticOperation(context, operation, CodeBuilder.StackOperation.SUB);
+                break;
+            case MULTIPLY:
+                compileArithmeticOperation(context, operation, CodeBuilder.StackOperation.MUL);
+                break;
+            case DIVIDE:
+                compileArithmeticOperation(context, operation, CodeBuilder.StackOperation.DIV);
+                break;
 
-        if (expression.getNodeType() != NodeType.EXPRESSION) {
-            builder.append(compileTerm(expression));
-        } else {
-            builder.append(compileTerm(expression.getChild(0)));
-            ValueType firstType = typeOnStack;
-
-            CodeBuilder.StackOperation operation;
-
-            switch (expression.getValueToken().getType()) {
-                case PLUS:
-                    operation = CodeBuilder.StackOperation.ADD;
-                    break;
-                case MINUS:
-                    operation = CodeBuilder.StackOperation.SUB;
-                    break;
-                default:
-                    throw new CompilationErrorException("Unknown operation with two parameters: " + expression.getValueToken().getType());
-            }
+            case POWER:
+                compilePower(context, operation);
+                break;
 
-            builder.append(compileTerm(expression.getChild(1)));
-            ValueType secondType = typeOnStack;
+            case EQUALS:
+            case NOT_EQUALS:
+            case GREATER_THAN:
+            case GREATER_THAN_OR_EQUALS:
+            case LESS_THAN:
+            case LESS_THAN_OR_EQUALS:
+            case AND:
+            case OR:
+                compileLogicalValue(context, operation);
+                break;
 
-            builder.append(compileBinaryStackOperation(firstType, secondType, operation));
+            default:
+                throw new CompilationErrorException("Unknown operation with two parameters: " + operation.getValueToken().getType());
         }
+    }
 
-        return builder.toString();
+    private void compileArithmeticOperation(MethodCompilationContext context, Node operation, CodeBuilder.StackOperation stackOperation) throws CompilationErrorException {
+        compileExpression(context, operation.getChild(0));
+        ValueType firstType = context.getTypeOnStack();
+
+        compileExpression(context, operation.getChild(1));
+        ValueType secondType = context.getTypeOnStack();
+
+        compileBinaryStackOperation(context, firstType, secondType, stackOperation);
     }
 
+    private void compilePower(MethodCompilationContext context, Node power) throws CompilationErrorException {
+        compileExpression(context, power.getChild(0));
+        ValueType firstType = context.getTypeOnStack();
 
+        compileExpression(context, power.getChild(1));
+        ValueType secondType = context.getTypeOnStack();
 
-    private String compileTerm(Node term) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+        // there is no power instruction, so use Math.pow for doubles
+        promoteToDouble(context, firstType, secondType);
 
-        if (term.getNodeType() != NodeType.TERM) {
-            builder.append(compileFactor(term));
-        } else {
-            builder.append(compileFactor(term.getChild(0)));
-            ValueType firstType = typeOnStack;
-
-            CodeBuilder.StackOperation operation;
-
-            switch (term.getValueToken().getType()) {
-                case MULTIPLY:
-                    operation = CodeBuilder.StackOperation.MUL;
-                    break;
-                case DIVIDE:
-                    operation = CodeBuilder.StackOperation.DIV;
-                    break;
-                default:
-                    throw new CompilationErrorException("Unknown operation with two parameters: " + term.getValueToken().getType());
-            }
+        context.getCode().invokeStatic("java/lang/Math", POW);
+        context.setTypeOnStack(ValueType.D);
 
-            builder.append(compileTerm(term.getChild(1)));
-            ValueType secondType = typeOnStack;
+        if (firstType == ValueType.I && secondType == ValueType.I) {
+            context.getCode().cast(ValueType.D, ValueType.I);
+            context.setTypeOnStack(ValueType.I);
+        }
+    }
 
-            builder.append(compileBinaryStackOperation(firstType, secondType, operation));
+    private void compileUnaryOperation(MethodCompilationContext context, UnaryOperationNode operation) throws CompilationErrorException {
+        if (operation.getOperationType() == UnaryOperationNode.OperationType.NOT) {
+            compileLogicalValue(context, operation);
+            return;
         }
 
-        return builder.toString();
+        compileExpression(context, operation.getOperand());
+
+        if (context.getTypeOnStack() != ValueType.I && context.getTypeOnStack() != ValueType.D) {
+            throw new CompilationErrorException("Cannot apply unary minus to unknown type " + context.getTypeOnStack());
+        }
+
+        context.getCode().negate(context.getTypeOnStack());
     }
 
-    private String compileFactor(Node factor) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+    // comparisons and logical operations give int 1 for true and 0 for false
+    private void compileLogicalValue(MethodCompilationContext context, Node condition) throws CompilationErrorException {
+        String falseLabel = CodeBuilder.conditionLabel(context.nextLabelIndex());
+        String endLabel = CodeBuilder.conditionLabel(context.nextLabelIndex());
 
-        if (factor.getNodeType() != NodeType.FACTOR) {
-            builder.append(compilePower(factor));
-        } else {
-            builder.append(compilePower(factor.getChild(0)));
-            ValueType firstType = typeOnStack;
+        compileCondition(context, condition, false, falseLabel);
+
+        context.getCode().constant(ValueType.I, "1");
+        context.getCode().jump(endLabel);
+        context.getCode().label(falseLabel);
+        context.getCode().constant(ValueType.I, "0");
+        context.getCode().label(endLabel);
+
+        context.setTypeOnStack(ValueType.I);
+    }
 
-            String operation;
+    // jumps to label if condition value is equal to jumpIf, falls through otherwise,
+    // && and || are short circuit: right operand is not evaluated, when left one decides the result
+    private void compileCondition(MethodCompilationContext context, Node condition, boolean jumpIf, String label) throws CompilationErrorException {
+        if (condition.getNodeType() == NodeType.UNARY_OPERATION) {
+            UnaryOperationNode operation = (UnaryOperationNode) condition;
 
-            switch (factor.getValueToken().getType()) {
-                case POWER:
-                    operation = "POWER";
-                    break;
-                default:
-                    throw new CompilationErrorException("Unknown operation with two parameters: " + factor.getValueToken().getType());
+            if (operation.getOperationType() == UnaryOperationNode.OperationType.NOT) {
+                compileCondition(context, operation.getOperand(), !jumpIf, label);
+                return;
             }
+        } else if (condition.getNodeType() == NodeType.EXPRESSION || condition.getNodeType() == NodeType.TERM) {
+            switch (condition.getValueToken().getType()) {
+                case AND:
+                case OR: {
+                    boolean isAnd = condition.getValueToken().hasType(Token.Type.AND);
+
+                    if (isAnd != jumpIf) {
+                        // false left operand of && (true of ||) is enough to jump
+                        compileCondition(context, condition.getChild(0), jumpIf, label);
+                        compileCondition(context, condition.getChild(1), jumpIf, label);
+                    } else {
+                        // false left operand of && (true of ||) is enough to skip the jump
+                        String skipLabel = CodeBuilder.conditionLabel(context.nextLabelIndex());
 
-            builder.append(compileFactor(factor.getChild(1)));
-            ValueType secondType = typeOnStack;
-
-            if (firstType == ValueType.I && secondType == ValueType.I) {
-                builder.append(CodeBuilder.CODE_INDENT)
-                        .append("i").append(operation).append("\n");
-                typeOnStack = ValueType.I;
-            } else {
-                if (firstType == ValueType.D) {
-                    // cast second argument ( stack top ) to double
-                    builder.append(CodeBuilder.CODE_INDENT).append("i2d                   ; cast integer on stack to double\n");
-                    popped(ValueType.I);
-                    pushed(ValueType.D);
-                } else if (secondType == ValueType.D) {
-                    // cast first argument ( stack second ) to double
-                    int index = getMinVariableIndex(ValueType.D);
-                    builder.append(CodeBuilder.storeStackToVariable(ValueType.D, index, "temp"));
-                    popped(ValueType.I);
-                    builder.append(CodeBuilder.cast(ValueType.I, ValueType.D));
-                    builder.append(CodeBuilder.loadVariableToStack(ValueType.D, index, "temp"));
-                    pushed(ValueType.D);
-                }
+                        compileCondition(context, condition.getChild(0), !jumpIf, skipLabel);
+                        compileCondition(context, condition.getChild(1), jumpIf, label);
 
-                builder.append(CodeBuilder.CODE_INDENT)
-                        .append("d").append(operation).append("\n");
-                typeOnStack = ValueType.D;
+                        context.getCode().label(skipLabel);
+                    }
+                    return;
+                }
 
-                popped(typeOnStack);
+                case EQUALS:
+                case NOT_EQUALS:
+                case GREATER_THAN:
+                case GREATER_THAN_OR_EQUALS:
+                case LESS_THAN:
+                case LESS_THAN_OR_EQUALS:
+                    compileComparison(context, condition, jumpIf, label);
+                    return;
             }
         }
 
-        return builder.toString();
-    }
+        // any other value is true, when it is not zero
+        compileExpression(context, condition);
 
-    private String compilePower(Node power) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+        if (context.getTypeOnStack() == ValueType.D) {
+            context.getCode().constant(ValueType.D, "0.0");
+            context.getCode().compare(-1);
+        }
 
-        if (power.getNodeType() == NodeType.UNARY_OPERATION) {
-            Node atom = ((UnaryOperationNode) power).getOperand();
-            builder.append(compileAtom(atom));
+        context.getCode().branch(jumpIf ? Condition.NE : Condition.EQ, label);
+    }
 
-            String value;
+    private void compileComparison(MethodCompilationContext context, Node comparison, boolean jumpIf, String label) throws CompilationErrorException {
+        Condition condition = Condition.of(comparison.getValueToken().getType());
 
-            switch (typeOnStack) {
-                case I:
-                    value = "-1";
-                    break;
+        // comparison with NaN is false: compare gives 1 for NaN, when source operator is < or <=,
+        // and -1 otherwise, negated jump is then taken for NaN as it should be
+        int nanResult = condition == Condition.LT || condition == Condition.LE ? 1 : -1;
 
-                case D:
-                    value = "-1.0";
-                    break;
+        if (!jumpIf) {
+            condition = condition.negate();
+        }
 
-                default:
-                    throw new CompilationErrorException("Cannot apply unary minus to unknown type " + typeOnStack);
-            }
+        compileExpression(context, comparison.getChild(0));
+        ValueType firstType = context.getTypeOnStack();
 
-            builder.append(CodeBuilder.loadValueToStack(typeOnStack, value));
-            pushed(typeOnStack);
-            builder.append(CodeBuilder.operationOnStack(typeOnStack, CodeBuilder.StackOperation.MUL));
-            popped(typeOnStack);
+        compileExpression(context, comparison.getChild(1));
+        ValueType secondType = context.getTypeOnStack();
 
+        if (firstType == ValueType.I && secondType == ValueType.I) {
+            context.getCode().branchCompare(condition, label);
         } else {
-            builder.append(compileAtom(power));
-        }
+            promoteToDouble(context, firstType, secondType);
 
-        return builder.toString();
-    }
+            context.getCode().compare(nanResult);
 
-    private String compileAtom(Node atom) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+            context.getCode().branch(condition, label);
+        }
+    }
 
+    private void compileAtom(MethodCompilationContext context, Node atom) throws CompilationErrorException {
         switch (atom.getNodeType()) {
             case VALUE:
                 ValueNode valueNode = (ValueNode) atom;
@@ -499,60 +695,84 @@ public class ProgramCompiler {
                 String value = valueNode.getValue();
                 ValueType type = typeMap.get(valueNode.getValueType());
 
-                builder.append(CodeBuilder.loadValueToStack(type, value));
-                pushed(type);
+                context.getCode().constant(type, value);
 
-                typeOnStack = type;
+                context.setTypeOnStack(type);
 
                 break;
 
             case VARIABLE_GET:
-                builder.append(loadVariableToStack(((VariableNode) atom).getVariableName()));
+                Register variable = getVariable(context, (VariableNode) atom);
+
+                if (variable.getType().isArray()) {
+                    throw new CompilationErrorException(
+                            "Array '" + variable.getName() + "' cannot be used as value, only its elements can");
+                }
+
+                loadVariableToStack(context, variable);
                 break;
 
-            case UNARY_OPERATION:
-            case EXPRESSION:
-                builder.append(compileExpression(atom));
+            case ARRAY_ELEMENT:
+                ValueType elementType = loadArrayAndIndex(context, (ArrayElementNode) atom);
+
+                context.getCode().arrayLoad(elementType);
+                context.setTypeOnStack(elementType);
                 break;
 
             case METHOD_CALL:
-                builder.append(compileMethodCall((MethodCallNode) atom));
+                compileMethodCall(context, (MethodCallNode) atom);
                 break;
 
-
+            default:
+                throw new CompilationErrorException("Unexpected expression: " + atom.getNodeType());
         }
-
-        return builder.toString();
     }
 
-    private String compileMethodCall(MethodCallNode methodCall) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
+    // result of method called as command is not used and must not stay on stack
+    private void compileCallStatement(MethodCompilationContext context, MethodCallNode methodCall) throws CompilationErrorException {
+        MethodSignature signature = signatures.get(symbolOf(methodCall.getSymbol(), methodCall.getName()));
+
+        compileMethodCall(context, methodCall);
 
-        MethodNode methodNode = methodMap.get(methodCall.getName());
+        if (signature.getResultType() != ValueType.V) {
+            context.getCode().pop(signature.getResultType());
+        }
+    }
 
-        if (methodNode == null) {
+    private void compileMethodCall(MethodCompilationContext context, MethodCallNode methodCall) throws CompilationErrorException {
+        MethodSignature signature = signatures.get(symbolOf(methodCall.getSymbol(), methodCall.getName()));
+
+        if (signature == null) {
             throw new CompilationErrorException(
-                    "Method with name '" + methodCall.getName() + "' was not declared earlier");
+                    "Method with name '" + methodCall.getName() + "' was not declared");
         }
 
-        builder.append(CodeBuilder.CODE_INDENT).append("; METHOD CALL").append('\n');
+        context.getCode().comment("METHOD CALL");
 
-        // push all parameters values to stack
-        for (Node expression : methodCall.getParamsList().getChildren()) {
-            builder.append(compileExpression(expression));
+        List<Node> arguments = methodCall.getParamsList().getChildren();
+
+        if (signature.getParametersCount() != arguments.size()) {
+            throw new CompilationErrorException(
+                    "Method '" + methodCall.getName() + "' expects " + signature.getParametersCount()
+                            + " parameters, but " + arguments.size() + " given");
         }
 
-        builder.append(CodeBuilder.CODE_INDENT)
-                .append("invokestatic          ")
-                .append(constructMethodCallSignature(methodNode))
-                .append("\n");
+        // push all parameters values to stack
+        for (int i = 0; i < arguments.size(); i++) {
+            compileExpression(context, arguments.get(i));
+
+            ValueType expected = signature.getParameterType(i);
 
-        if (methodNode.getResultType() != ValueNode.ValueType.VOID_VALUE) {
-            pushed(typeMap.get(methodNode.getResultType()));
-            typeOnStack = typeMap.get(methodNode.getResultType());
+            if (context.getTypeOnStack() != expected) {
+                context.getCode().cast(context.getTypeOnStack(), expected);
+            }
         }
 
-        return builder.toString();
+        context.getCode().invokeStatic(className, signature);
+
+        if (signature.getResultType() != ValueType.V) {
+            context.setTypeOnStack(signature.getResultType());
+        }
     }
 
     private void createFile() throws IOException {
@@ -567,191 +787,117 @@ public class ProgramCompiler {
         }
     }
 
-    private void declareVariable(String name, ValueType type) {
-        int index = getMinVariableIndex(type);
-
-        Variable variable = new Variable(
-                name,
-                type,
-                index
-        );
-
-        variableMap.put(variable.name, variable);
-
-        localVariables[index] = 1;
-        if (type == ValueType.D) {
-            localVariables[index + 1] = 1;
-        }
+    private void declareVariable(MethodCompilationContext context, VariableNode node, ValueType type) {
+        context.declareVariable(symbolOf(node), node.getVariableName(), type);
     }
 
-    private String storeStackToVariable(String variableName) throws CompilationErrorException {
-        Variable variable = variableMap.get(variableName);
-        String result = CodeBuilder.storeStackToVariable(variable);
-
-        popped(variable.type);
-
-        return result;
+    private void storeStackToVariable(MethodCompilationContext context, Register variable) throws CompilationErrorException {
+        context.getCode().store(variable);
     }
 
-    private String loadVariableToStack(String variableName) throws CompilationErrorException {
-        Variable variable = variableMap.get(variableName);
-
-        String result = CodeBuilder.loadVariableToStack(variable);
-
-        typeOnStack = variable.type;
-
-        pushed(typeOnStack);
+    private void loadVariableToStack(MethodCompilationContext context, Register variable) throws CompilationErrorException {
+        context.getCode().load(variable);
 
-        return result;
+        context.setTypeOnStack(variable.getType());
     }
 
-    private String compileBinaryStackOperation(
-            ValueType firstType,
-            ValueType secondType,
-            CodeBuilder.StackOperation operation) throws CompilationErrorException {
-        StringBuilder builder = new StringBuilder();
-
-        if (firstType == ValueType.I && secondType == ValueType.I) {
-            // both values are integer, no need to cast
-            builder.append(CodeBuilder.operationOnStack(ValueType.I, operation));
-            typeOnStack = ValueType.I;
-        } else {
-            // one value is double - need double multiplication
-            if (secondType == ValueType.I) {
-                // cast second argument ( stack top ) to double
-                builder.append(CodeBuilder.cast(ValueType.I, ValueType.D));
-                popped(ValueType.I);
-                pushed(ValueType.D);
-            } else if (firstType == ValueType.I) {
-                int index = getMinVariableIndex(ValueType.D);
-                // cast first argument ( stack second ) to double
-                builder.append(CodeBuilder.storeStackToVariable(ValueType.D, index, "temp"));
-                popped(ValueType.I);
-                builder.append(CodeBuilder.cast(ValueType.I, ValueType.D));
-                builder.append(CodeBuilder.loadVariableToStack(ValueType.D, index, "temp"));
-                pushed(ValueType.D);
-            }
+    private Register getVariable(MethodCompilationContext context, VariableNode node) throws CompilationErrorException {
+        Register variable = context.getVariable(symbolOf(node));
 
-            builder.append(CodeBuilder.operationOnStack(ValueType.D, operation));
-            typeOnStack = ValueType.D;
-            popped(ValueType.D);
+        if (variable == null) {
+            throw new CompilationErrorException(
+                    "Variable with name '" + node.getVariableName() + "' was not declared earlier");
         }
 
-        return builder.toString();
+        return variable;
     }
 
-    private int getMinVariableIndex(ValueType type) {
-        for (int i = 0; i < localVariables.length - 1; i++) {
-            if (localVariables[i] == 0) {
-                if (type == ValueType.D) {
-                    if (localVariables[i + 1] == 0) {
-                        return i;
-                    } else {
-                        continue;
-                    }
-                }
-                return i;
-            }
-        }
+    // pushes array and integer index of element, returns type of array elements
+    private ValueType loadArrayAndIndex(MethodCompilationContext context, ArrayElementNode element) throws CompilationErrorException {
+        Register array = getVariable(context, element);
 
-        return -1;
-    }
+        if (!array.getType().isArray()) {
+            throw new CompilationErrorException("Variable '" + array.getName() + "' is not an array");
+        }
 
-    private String constructMethodCallSignature(MethodNode methodNode) {
-        return "MainJasmin/" + constructMethodDeclareSignature(methodNode);
-    }
+        context.getCode().load(array);
 
-    private String constructMethodDeclareSignature(MethodNode methodNode) {
-        StringBuilder result = new StringBuilder("");
+        compileExpression(context, element.getIndex());
 
-        result.append(methodNode.getName().getValue()).append("(");
-        for (Node var : methodNode.getVarList().getChildren()) {
-            result.append(typeMap.get(((VariableNode) var).getVariableType()));
+        if (context.getTypeOnStack() != ValueType.I) {
+            throw new CompilationErrorException("Index of array '" + array.getName() + "' must be integer");
         }
 
-        result.append(")");
-        result.append(typeMap.get(methodNode.getResultType()));
+        return array.getType().getElementType();
+    }
 
-        return result.toString();
+    private int symbolOf(VariableNode node) {
+        return symbolOf(node.getSymbol(), node.getVariableName());
     }
 
-    private void pushed(int size) {
-        stackDepth += size;
+    // nodes built by parser already carry ids, others are interned here,
+    // table is not thread safe and methods are compiled in parallel
+    private int symbolOf(int symbol, String name) {
+        if (symbol >= 0 && sharedSymbols) {
+            return symbol;
+        }
 
-        if (stackDepth > maxStackDepth) {
-            maxStackDepth = stackDepth;
+        synchronized (symbols) {
+            return symbols.intern(name);
         }
     }
 
-    private void pushed(ValueType type) throws CompilationErrorException {
-        int size;
-
-        switch (type) {
-            case I:
-                size = 1;
-                break;
-
-            case D:
-                size = 2;
-                break;
+    private void compileBinaryStackOperation(
+            MethodCompilationContext context,
+            ValueType firstType,
+            ValueType secondType,
+            CodeBuilder.StackOperation operation) throws CompilationErrorException {
+        if (firstType == ValueType.I && secondType == ValueType.I) {
+            // both values are integer, no need to cast
+            context.getCode().arithmetic(operation, ValueType.I);
+            context.setTypeOnStack(ValueType.I);
+        } else {
+            // one value is double - need double operation
+            promoteToDouble(context, firstType, secondType);
 
-            default:
-                throw new CompilationErrorException("Cannot push on stack item of unknown type: " + type);
+            context.getCode().arithmetic(operation, ValueType.D);
+            context.setTypeOnStack(ValueType.D);
         }
-
-        pushed(size);
-    }
-
-    private void popped(int size) {
-        stackDepth -= size;
     }
 
-    private void popped(ValueType type) throws CompilationErrorException {
-        int size;
-
-        switch (type) {
-            case I:
-                size = 1;
-                break;
-
-            case D:
-                size = 2;
-                break;
-
-            default:
-                throw new CompilationErrorException("Cannot pop on stack item of unknown type: " + type);
+    // cast both operands on stack to double
+    private void promoteToDouble(MethodCompilationContext context, ValueType firstType, ValueType secondType) throws CompilationErrorException {
+        if (secondType == ValueType.I) {
+            // cast second argument ( stack top ) to double
+            context.getCode().cast(ValueType.I, ValueType.D);
         }
 
-        popped(size);
+        if (firstType == ValueType.I) {
+            // cast first argument ( stack second ) to double
+            context.getCode().castSecond();
+        }
     }
 
     public static enum ValueType {
         I,
         D,
-        V
-    }
-
-    public static class Variable {
-        private Variable(String name, ValueType type, int index) {
-            this.name = name;
-            this.type = type;
-            this.index = index;
-        }
+        V,
 
-        private String name;
-        private ValueType type;
-        private int index;
+        // int[] and double[], only local variables can be arrays, so they never appear in descriptors
+        IA,
+        DA;
 
-        public String getName() {
-            return name;
+        public boolean isArray() {
+            return this == IA || this == DA;
         }
 
-        public ValueType getType() {
-            return type;
+        // type of elements of array type
+        public ValueType getElementType() {
+            return this == IA ? I : D;
         }
 
-        public int getIndex() {
-            return index;
+        public static ValueType arrayOf(ValueType elementType) {
+            return elementType == I ? IA : DA;
         }
     }
 }
@@ -0,0 +1,49 @@
+package compiler;
+
+import java.util.Arrays;
+
+// signatures of all methods of program, indexed by symbol id of method name,
+// table is complete before any method body is compiled and never changes after that,
+// so it is shared by all compiling threads without locks
+public final class SignatureTable {
+    private final MethodSignature[] signatures;
+    private final int size;
+
+    private SignatureTable(MethodSignature[] signatures, int size) {
+        this.signatures = signatures;
+        this.size = size;
+    }
+
+    // signature of method with given name symbol or null, if there is no such method
+    public MethodSignature get(int symbol) {
+        return symbol >= 0 && symbol < signatures.length ? signatures[symbol] : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static class Builder {
+        private MethodSignature[] signatures = new MethodSignature[64];
+        private int size = 0;
+
+        public Builder add(int symbol, MethodSignature signature) throws CompilationErrorException {
+            if (symbol >= signatures.length) {
+                signatures = Arrays.copyOf(signatures, Math.max(signatures.length * 2, symbol + 1));
+            }
+
+            if (signatures[symbol] != null) {
+                throw new CompilationErrorException("Method with name '" + signature.getName() + "' is declared twice");
+            }
+
+            signatures[symbol] = signature;
+            size++;
+
+            return this;
+        }
+
+        public SignatureTable build() {
+            return new SignatureTable(signatures.clone(), size);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package compiler;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// simulates operand stack depth over final code of one method, the way verifier does,
+// every instruction must be reached with the same depth on all paths
+public class StackAnalyzer {
+    public int analyze(InstructionList code) throws CompilationErrorException {
+        List<InstructionList.Instruction> instructions = code.getInstructions();
+
+        String methodName = "";
+        Map<String, Integer> labels = new HashMap<>();
+
+        for (int i = 0; i < instructions.size(); i++) {
+            InstructionList.Instruction instruction = instructions.get(i);
+
+            if (instruction.getKind() == InstructionList.Kind.LABEL) {
+                labels.put(instruction.getName(), i);
+            } else if (instruction.getKind() == InstructionList.Kind.BEGIN_METHOD) {
+                methodName = instruction.getName();
+            }
+        }
+
+        // depth before each instruction, -1 for not reached yet
+        int[] depths = new int[instructions.size()];
+        Arrays.fill(depths, -1);
+
+        Deque<Integer> pending = new ArrayDeque<>();
+        int maxDepth = 0;
+
+        if (!instructions.isEmpty()) {
+            depths[0] = 0;
+            pending.push(0);
+        }
+
+        while (!pending.isEmpty()) {
+            int index = pending.pop();
+            int depth = depths[index];
+
+            // follow straight line code until it ends or joins already visited code
+            while (true) {
+                InstructionList.Instruction instruction = instructions.get(index);
+
+                if (instruction.getKind() == InstructionList.Kind.END_METHOD) {
+                    throw new CompilationErrorException("Execution can reach the end of method " + methodName + " without return");
+                }
+
+                depth -= popped(instruction);
+
+                if (depth < 0) {
+                    throw new CompilationErrorException("Stack underflow at " + describe(instruction) + " in method " + methodName);
+                }
+
+                depth += pushed(instruction);
+                maxDepth = Math.max(maxDepth, depth);
+
+                if (instruction.getKind() == InstructionList.Kind.JUMP) {
+                    Integer target = labels.get(instruction.getName());
+
+                    if (target == null) {
+                        throw new CompilationErrorException("Jump to unknown label " + instruction.getName() + " in method " + methodName);
+                    }
+
+                    if (reach(depths, target, depth, instructions, methodName)) {
+                        pending.push(target);
+                    }
+                }
+
+                if (instruction.getOpcode() != null && instruction.getOpcode().isTerminator()) {
+                    break;
+                }
+
+                index++;
+
+                if (!reach(depths, index, depth, instructions, methodName)) {
+                    break;
+                }
+            }
+        }
+
+        return maxDepth;
+    }
+
+    // records depth of instruction, returns false if it was already reached before
+    private static boolean reach(int[] depths, int index, int depth, List<InstructionList.Instruction> instructions,
+                                 String methodName) throws CompilationErrorException {
+        if (depths[index] == -1) {
+            depths[index] = depth;
+            return true;
+        }
+
+        if (depths[index] != depth) {
+            throw new CompilationErrorException("Stack depth " + depth + " differs from " + depths[index]
+                    + " at " + describe(instructions.get(index)) + " in method " + methodName);
+        }
+
+        return false;
+    }
+
+    private static int popped(InstructionList.Instruction instruction) {
+        switch (instruction.getKind()) {
+            case INSTRUCTION:
+            case VARIABLE:
+            case JUMP:
+            case PUSH:
+                return instruction.getOpcode().getPopped();
+
+            case INVOKE:
+                int arguments = MethodSignature.argumentsSize(instruction.getDescriptor());
+                return instruction.getOpcode() == Opcode.INVOKESTATIC ? arguments : arguments + 1;
+
+            default:
+                return 0;
+        }
+    }
+
+    private static int pushed(InstructionList.Instruction instruction) {
+        switch (instruction.getKind()) {
+            case INSTRUCTION:
+            case VARIABLE:
+            case JUMP:
+            case PUSH:
+                return instruction.getOpcode().getPushed();
+
+            case CONSTANT:
+                return instruction.getType() == ProgramCompiler.ValueType.D ? 2 : 1;
+
+            case FIELD:
+                return MethodSignature.typeSize(instruction.getDescriptor());
+
+            case INVOKE:
+                return MethodSignature.resultSize(instruction.getDescriptor());
+
+            default:
+                return 0;
+        }
+    }
+
+    private static String describe(InstructionList.Instruction instruction) {
+        switch (instruction.getKind()) {
+            case LABEL:
+                return "label " + instruction.getName();
+            case INVOKE:
+                return instruction.getOpcode().getMnemonic() + " " + instruction.getName() + instruction.getDescriptor();
+            default:
+                return instruction.getOpcode() != null ? instruction.getOpcode().getMnemonic() : instruction.getKind().toString();
+        }
+    }
+}
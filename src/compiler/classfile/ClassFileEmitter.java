@@ -0,0 +1,317 @@
+package compiler.classfile;
+
+import compiler.CodeEmitter;
+import compiler.CompilationErrorException;
+import compiler.Opcode;
+import compiler.ProgramCompiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// emits JVM class file directly, without Jasmin text and external assembler.
+// Unlike JasminEmitter it does not stream: constant pool precedes methods in class file
+// and is complete only after the last method, so code of all methods is kept in memory
+// until endClass(), memory grows with size of the class
+public class ClassFileEmitter implements CodeEmitter {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    // version 49 (Java 5) does not require StackMapTable frames
+    private static final int MAJOR_VERSION = 49;
+    private static final int MINOR_VERSION = 0;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_STATIC = 0x0008;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int OPCODE_LDC_W = 0x13;
+    private static final int OPCODE_WIDE = 0xc4;
+
+    private static final int MAX_CODE_LENGTH = 0xffff;
+
+    private static final String SUPER_CLASS = "java/lang/Object";
+
+    private ConstantPool pool = new ConstantPool();
+
+    private int thisClass;
+    private int superClass;
+    private int sourceFile;
+
+    // finished methods, written after constant pool in endClass()
+    private ByteArrayOutputStream methods = new ByteArrayOutputStream();
+    private int methodsCount = 0;
+
+    // class is written to out, bytes is not null, when it is collected in memory
+    private OutputStream target;
+    private ByteArrayOutputStream bytes;
+
+    // state of current method
+    private String methodName;
+    private String methodDescriptor;
+    private ByteArrayOutputStream code = new ByteArrayOutputStream();
+    private Map<String, Integer> labels = new HashMap<>();
+    private List<JumpFixup> fixups = new ArrayList<>();
+
+    public ClassFileEmitter() {
+        bytes = new ByteArrayOutputStream();
+        target = bytes;
+    }
+
+    public ClassFileEmitter(OutputStream target) {
+        this.target = target;
+    }
+
+    @Override
+    public void beginClass(String className) throws CompilationErrorException {
+        thisClass = pool.classReference(className);
+        superClass = pool.classReference(SUPER_CLASS);
+        sourceFile = pool.utf8(className + ".java");
+
+        // default constructor
+        beginMethod("<init>", "()V");
+        instruction(Opcode.ALOAD_0);
+        invoke(Opcode.INVOKESPECIAL, SUPER_CLASS, "<init>", "()V");
+        instruction(Opcode.RETURN);
+        writeMethod(ACC_PUBLIC, 1, 1);
+    }
+
+    @Override
+    public void endClass() throws CompilationErrorException {
+        // constant pool is complete only after all methods, so it can be written only now
+        DataOutputStream out = new DataOutputStream(target);
+
+        try {
+            int sourceFileAttribute = pool.utf8("SourceFile");
+
+            out.writeInt(MAGIC);
+            out.writeShort(MINOR_VERSION);
+            out.writeShort(MAJOR_VERSION);
+
+            pool.writeTo(out);
+
+            out.writeShort(ACC_PUBLIC | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+
+            // no interfaces and fields
+            out.writeShort(0);
+            out.writeShort(0);
+
+            out.writeShort(methodsCount);
+            methods.writeTo(out);
+
+            out.writeShort(1);
+            out.writeShort(sourceFileAttribute);
+            out.writeInt(2);
+            out.writeShort(sourceFile);
+
+            out.flush();
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write class file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void beginMethod(String name, String descriptor) {
+        methodName = name;
+        methodDescriptor = descriptor;
+
+        code.reset();
+        labels.clear();
+        fixups.clear();
+    }
+
+    @Override
+    public void endMethod(int maxStack, int maxLocals) throws CompilationErrorException {
+        writeMethod(ACC_PUBLIC | ACC_STATIC, maxStack, maxLocals);
+    }
+
+    @Override
+    public void instruction(Opcode opcode) {
+        code.write(opcode.getCode());
+    }
+
+    @Override
+    public void constant(ProgramCompiler.ValueType type, String value) throws CompilationErrorException {
+        int index;
+
+        try {
+            switch (type) {
+                case I:
+                    index = pool.integer(Integer.parseInt(value));
+                    break;
+
+                case D:
+                    index = pool.doubleValue(Double.parseDouble(value));
+                    writeOperation(Opcode.LDC2_W.getCode(), index);
+                    return;
+
+                default:
+                    throw new CompilationErrorException("Unknown type: " + type);
+            }
+        } catch (NumberFormatException e) {
+            throw new CompilationErrorException("Wrong " + type + " constant: " + value);
+        }
+
+        if (index <= 0xff) {
+            code.write(Opcode.LDC.getCode());
+            code.write(index);
+        } else {
+            writeOperation(OPCODE_LDC_W, index);
+        }
+    }
+
+    @Override
+    public void push(Opcode opcode, int value) throws CompilationErrorException {
+        switch (opcode) {
+            case BIPUSH:
+                if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                    throw new CompilationErrorException("Value " + value + " does not fit into bipush");
+                }
+
+                code.write(opcode.getCode());
+                code.write(value);
+                break;
+
+            case SIPUSH:
+                if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                    throw new CompilationErrorException("Value " + value + " does not fit into sipush");
+                }
+
+                writeOperation(opcode.getCode(), value);
+                break;
+
+            case NEWARRAY:
+                code.write(opcode.getCode());
+                code.write(value);
+                break;
+
+            default:
+                throw new CompilationErrorException("Unknown push instruction: " + opcode);
+        }
+    }
+
+    @Override
+    public void variable(Opcode opcode, int index, String name) throws CompilationErrorException {
+        if (index < 0 || index > 0xffff) {
+            throw new CompilationErrorException("Wrong local variable index " + index + " of \"" + name + "\"");
+        }
+
+        if (opcode.hasImplicitIndex()) {
+            code.write(opcode.getCode());
+        } else if (index <= 0xff) {
+            code.write(opcode.getCode());
+            code.write(index);
+        } else {
+            code.write(OPCODE_WIDE);
+            writeOperation(opcode.getCode(), index);
+        }
+    }
+
+    @Override
+    public void jump(Opcode opcode, String label) {
+        fixups.add(new JumpFixup(code.size(), label));
+
+        // offset is written when method is finished and all labels are known
+        writeOperation(opcode.getCode(), 0);
+    }
+
+    @Override
+    public void label(String label) throws CompilationErrorException {
+        if (labels.put(label, code.size()) != null) {
+            throw new CompilationErrorException("Label " + label + " is defined twice in method " + methodName);
+        }
+    }
+
+    @Override
+    public void field(Opcode opcode, String owner, String name, String descriptor) throws CompilationErrorException {
+        writeOperation(opcode.getCode(), pool.fieldReference(owner, name, descriptor));
+    }
+
+    @Override
+    public void invoke(Opcode opcode, String owner, String name, String descriptor) throws CompilationErrorException {
+        writeOperation(opcode.getCode(), pool.methodReference(owner, name, descriptor));
+    }
+
+    @Override
+    public void comment(String text) {
+    }
+
+    // class collected in memory, only for emitter created without output
+    public byte[] toByteArray() {
+        return bytes.toByteArray();
+    }
+
+    private void writeOperation(int opcode, int operand) {
+        code.write(opcode);
+        code.write(operand >> 8);
+        code.write(operand);
+    }
+
+    private void writeMethod(int access, int maxStack, int maxLocals) throws CompilationErrorException {
+        byte[] bytecode = code.toByteArray();
+
+        if (bytecode.length > MAX_CODE_LENGTH) {
+            throw new CompilationErrorException("Method " + methodName + " is too large: " + bytecode.length + " bytes");
+        }
+
+        for (JumpFixup fixup : fixups) {
+            Integer target = labels.get(fixup.label);
+
+            if (target == null) {
+                throw new CompilationErrorException("Label " + fixup.label + " is not defined in method " + methodName);
+            }
+
+            int offset = target - fixup.position;
+
+            if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                throw new CompilationErrorException("Jump to " + fixup.label + " is too far in method " + methodName);
+            }
+
+            bytecode[fixup.position + 1] = (byte) (offset >> 8);
+            bytecode[fixup.position + 2] = (byte) offset;
+        }
+
+        DataOutputStream out = new DataOutputStream(methods);
+
+        try {
+            out.writeShort(access);
+            out.writeShort(pool.utf8(methodName));
+            out.writeShort(pool.utf8(methodDescriptor));
+
+            // single Code attribute
+            out.writeShort(1);
+            out.writeShort(pool.utf8("Code"));
+            out.writeInt(12 + bytecode.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(bytecode.length);
+            out.write(bytecode);
+
+            // no exception table and attributes
+            out.writeShort(0);
+            out.writeShort(0);
+
+            out.flush();
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write method " + methodName + ": " + e.getMessage());
+        }
+
+        methodsCount++;
+    }
+
+    private static class JumpFixup {
+        private final int position;
+        private final String label;
+
+        private JumpFixup(int position, String label) {
+            this.position = position;
+            this.label = label;
+        }
+    }
+}
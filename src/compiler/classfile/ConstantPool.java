@@ -0,0 +1,152 @@
+package compiler.classfile;
+
+import compiler.CompilationErrorException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ConstantPool {
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int MAX_SIZE = 0xffff;
+
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private DataOutputStream output = new DataOutputStream(bytes);
+
+    // entry key -> index in pool, so every constant is written once
+    private Map<String, Integer> indexes = new HashMap<>();
+
+    // index 0 is not used by class file format
+    private int size = 1;
+
+    public int utf8(String value) throws CompilationErrorException {
+        String key = "U" + value;
+        Integer index = indexes.get(key);
+
+        if (index != null) {
+            return index;
+        }
+
+        index = allocate(key, 1);
+
+        try {
+            output.writeByte(CONSTANT_UTF8);
+            output.writeUTF(value);
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write constant \"" + value + "\": " + e.getMessage());
+        }
+
+        return index;
+    }
+
+    public int integer(int value) throws CompilationErrorException {
+        String key = "I" + value;
+        Integer index = indexes.get(key);
+
+        if (index != null) {
+            return index;
+        }
+
+        index = allocate(key, 1);
+
+        try {
+            output.writeByte(CONSTANT_INTEGER);
+            output.writeInt(value);
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write constant " + value + ": " + e.getMessage());
+        }
+
+        return index;
+    }
+
+    public int doubleValue(double value) throws CompilationErrorException {
+        String key = "D" + Double.doubleToRawLongBits(value);
+        Integer index = indexes.get(key);
+
+        if (index != null) {
+            return index;
+        }
+
+        // double constants take two entries of the pool
+        index = allocate(key, 2);
+
+        try {
+            output.writeByte(CONSTANT_DOUBLE);
+            output.writeDouble(value);
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write constant " + value + ": " + e.getMessage());
+        }
+
+        return index;
+    }
+
+    public int classReference(String internalName) throws CompilationErrorException {
+        return reference(CONSTANT_CLASS, "C" + internalName, utf8(internalName));
+    }
+
+    public int nameAndType(String name, String descriptor) throws CompilationErrorException {
+        return reference(CONSTANT_NAME_AND_TYPE, "N" + name + " " + descriptor, utf8(name), utf8(descriptor));
+    }
+
+    public int fieldReference(String owner, String name, String descriptor) throws CompilationErrorException {
+        return reference(CONSTANT_FIELDREF, "F" + owner + "." + name + " " + descriptor,
+                classReference(owner), nameAndType(name, descriptor));
+    }
+
+    public int methodReference(String owner, String name, String descriptor) throws CompilationErrorException {
+        return reference(CONSTANT_METHODREF, "M" + owner + "." + name + descriptor,
+                classReference(owner), nameAndType(name, descriptor));
+    }
+
+    private int reference(int tag, String key, int... parts) throws CompilationErrorException {
+        Integer index = indexes.get(key);
+
+        if (index != null) {
+            return index;
+        }
+
+        index = allocate(key, 1);
+
+        try {
+            output.writeByte(tag);
+            for (int part : parts) {
+                output.writeShort(part);
+            }
+        } catch (IOException e) {
+            throw new CompilationErrorException("Cannot write constant " + key + ": " + e.getMessage());
+        }
+
+        return index;
+    }
+
+    private int allocate(String key, int entries) throws CompilationErrorException {
+        if (size + entries > MAX_SIZE) {
+            throw new CompilationErrorException("Too many constants in class, limit is " + MAX_SIZE);
+        }
+
+        int index = size;
+
+        size += entries;
+        indexes.put(key, index);
+
+        return index;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeShort(size);
+        bytes.writeTo(out);
+    }
+}
@@ -0,0 +1,78 @@
+package compiler.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// straight line code: control enters only at the start and leaves only after the last instruction
+public final class BasicBlock {
+    private final int id;
+
+    // null for blocks, which are never jump targets
+    private final String label;
+
+    private final List<IrInstruction> instructions = new ArrayList<>();
+    private final List<BasicBlock> successors = new ArrayList<>();
+
+    BasicBlock(int id, String label) {
+        this.id = id;
+        this.label = label;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public List<IrInstruction> getInstructions() {
+        return Collections.unmodifiableList(instructions);
+    }
+
+    public List<BasicBlock> getSuccessors() {
+        return Collections.unmodifiableList(successors);
+    }
+
+    public boolean isEmpty() {
+        return instructions.isEmpty();
+    }
+
+    // last instruction is goto or return, so next block is not reached from this one
+    public boolean isTerminated() {
+        return !instructions.isEmpty() && instructions.get(instructions.size() - 1).isTerminator();
+    }
+
+    // last instruction is jump, nothing can be added after it
+    boolean isClosed() {
+        return !instructions.isEmpty() && (instructions.get(instructions.size() - 1).isJump() || isTerminated());
+    }
+
+    void add(IrInstruction instruction) {
+        instructions.add(instruction);
+    }
+
+    void addSuccessor(BasicBlock block) {
+        if (!successors.contains(block)) {
+            successors.add(block);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("B").append(id);
+
+        if (label != null) {
+            result.append(" (").append(label).append(')');
+        }
+
+        result.append(":\n");
+
+        for (IrInstruction instruction : instructions) {
+            result.append("    ").append(instruction).append('\n');
+        }
+
+        return result.toString();
+    }
+}
@@ -0,0 +1,135 @@
+package compiler.ir;
+
+import compiler.CodeBuilder;
+import compiler.CodeEmitter;
+import compiler.CompilationErrorException;
+import compiler.Opcode;
+import compiler.ProgramCompiler;
+
+// writes method IR to emitter as JVM instructions
+public class CodeGenerator {
+    public void generate(MethodIr method, CodeEmitter emitter) throws CompilationErrorException {
+        SlotAllocator slots = new SlotAllocator(method);
+
+        emitter.beginMethod(method.getSignature().getName(), method.getSignature().getDescriptor());
+
+        for (BasicBlock block : method.getBlocks()) {
+            if (block.getLabel() != null) {
+                emitter.label(block.getLabel());
+            }
+
+            for (IrInstruction instruction : block.getInstructions()) {
+                generate(instruction, slots, emitter);
+            }
+        }
+
+        // max stack is known only for final code, see StackAnalyzer
+        emitter.endMethod(0, slots.getLocalsSize());
+    }
+
+    private void generate(IrInstruction instruction, SlotAllocator slots, CodeEmitter emitter) throws CompilationErrorException {
+        switch (instruction.getOperation()) {
+            case CONSTANT:
+                emitter.constant(instruction.getType(), instruction.getValue());
+                break;
+
+            case LOAD:
+                emitter.variable(Opcode.load(instruction.getType()),
+                        slots.getSlot(instruction.getRegister()), instruction.getRegister().getName());
+                break;
+
+            case STORE:
+                emitter.variable(Opcode.store(instruction.getType()),
+                        slots.getSlot(instruction.getRegister()), instruction.getRegister().getName());
+                break;
+
+            case ADD:
+                emitter.instruction(Opcode.operation(instruction.getType(), CodeBuilder.StackOperation.ADD));
+                break;
+
+            case SUB:
+                emitter.instruction(Opcode.operation(instruction.getType(), CodeBuilder.StackOperation.SUB));
+                break;
+
+            case MUL:
+                emitter.instruction(Opcode.operation(instruction.getType(), CodeBuilder.StackOperation.MUL));
+                break;
+
+            case DIV:
+                emitter.instruction(Opcode.operation(instruction.getType(), CodeBuilder.StackOperation.DIV));
+                break;
+
+            case NEGATE:
+                emitter.instruction(instruction.getType() == ProgramCompiler.ValueType.I ? Opcode.INEG : Opcode.DNEG);
+                break;
+
+            case POP:
+                emitter.instruction(instruction.getType() == ProgramCompiler.ValueType.D ? Opcode.POP2 : Opcode.POP);
+                break;
+
+            case CAST:
+                emitter.instruction(Opcode.cast(instruction.getType(), instruction.getTargetType()));
+                break;
+
+            case NEW_ARRAY:
+                emitter.push(Opcode.NEWARRAY, Opcode.arrayType(instruction.getType()));
+                break;
+
+            case ARRAY_LOAD:
+                emitter.instruction(Opcode.arrayLoad(instruction.getType()));
+                break;
+
+            case ARRAY_STORE:
+                emitter.instruction(Opcode.arrayStore(instruction.getType()));
+                break;
+
+            case CAST_SECOND:
+                // int, double -> double, int -> double, double -> swapped back to original order
+                emitter.instruction(Opcode.DUP2_X1);
+                emitter.instruction(Opcode.POP2);
+                emitter.instruction(Opcode.I2D);
+                emitter.instruction(Opcode.DUP2_X2);
+                emitter.instruction(Opcode.POP2);
+                break;
+
+            case COMPARE:
+                emitter.instruction(instruction.getNanResult() > 0 ? Opcode.DCMPG : Opcode.DCMPL);
+                break;
+
+            case BRANCH:
+                emitter.jump(Opcode.comparison(instruction.getCondition()), instruction.getLabel());
+                break;
+
+            case BRANCH_COMPARE:
+                emitter.jump(Opcode.integerComparison(instruction.getCondition()), instruction.getLabel());
+                break;
+
+            case GOTO:
+                emitter.jump(Opcode.GOTO, instruction.getLabel());
+                break;
+
+            case RETURN:
+                emitter.instruction(Opcode.returnOperation(instruction.getType()));
+                break;
+
+            case GET_STATIC:
+                emitter.field(Opcode.GETSTATIC, instruction.getOwner(), instruction.getName(), instruction.getDescriptor());
+                break;
+
+            case INVOKE_STATIC:
+                emitter.invoke(Opcode.INVOKESTATIC, instruction.getOwner(), instruction.getName(), instruction.getDescriptor());
+                break;
+
+            case INVOKE_VIRTUAL:
+                emitter.invoke(Opcode.INVOKEVIRTUAL, instruction.getOwner(), instruction.getName(), instruction.getDescriptor());
+                break;
+
+            case COMMENT:
+                emitter.comment(instruction.getValue());
+                break;
+
+            default:
+                throw new CompilationErrorException("Cannot generate code for " + instruction);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package compiler.ir;
+
+import compiler.CompilationErrorException;
+import tokenizer.Token;
+
+// relation checked by conditional branch
+public enum Condition {
+    EQ,
+    NE,
+    LT,
+    GE,
+    GT,
+    LE;
+
+    // condition, which holds exactly when this one does not
+    public Condition negate() {
+        switch (this) {
+            case EQ:
+                return NE;
+            case NE:
+                return EQ;
+            case LT:
+                return GE;
+            case GE:
+                return LT;
+            case GT:
+                return LE;
+            default:
+                return GT;
+        }
+    }
+
+    public static Condition of(Token.Type operator) throws CompilationErrorException {
+        switch (operator) {
+            case EQUALS:
+                return EQ;
+            case NOT_EQUALS:
+                return NE;
+            case GREATER_THAN:
+                return GT;
+            case GREATER_THAN_OR_EQUALS:
+                return GE;
+            case LESS_THAN:
+                return LT;
+            case LESS_THAN_OR_EQUALS:
+                return LE;
+            default:
+                throw new CompilationErrorException("Unknown comparison operator: " + operator);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package compiler.ir;
+
+import compiler.CodeBuilder;
+import compiler.CompilationErrorException;
+import compiler.MethodSignature;
+import compiler.ProgramCompiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// collects typed stack code of one method, new basic block is started at every label and after every jump
+public class IrBuilder {
+    private final List<Register> registers = new ArrayList<>();
+    private final List<BasicBlock> blocks = new ArrayList<>();
+    private final Map<String, BasicBlock> labels = new HashMap<>();
+
+    // null until first instruction or label
+    private BasicBlock current;
+
+    public Register newRegister(String name, ProgramCompiler.ValueType type) {
+        Register register = new Register(registers.size(), name, type);
+        registers.add(register);
+
+        return register;
+    }
+
+    public void constant(ProgramCompiler.ValueType type, String value) {
+        add(IrInstruction.constant(type, value));
+    }
+
+    public void load(Register register) {
+        add(IrInstruction.load(register));
+    }
+
+    public void store(Register register) {
+        add(IrInstruction.store(register));
+    }
+
+    public void arithmetic(CodeBuilder.StackOperation operation, ProgramCompiler.ValueType type) throws CompilationErrorException {
+        switch (operation) {
+            case ADD:
+                add(IrInstruction.arithmetic(Operation.ADD, type));
+                break;
+            case SUB:
+                add(IrInstruction.arithmetic(Operation.SUB, type));
+                break;
+            case MUL:
+                add(IrInstruction.arithmetic(Operation.MUL, type));
+                break;
+            case DIV:
+                add(IrInstruction.arithmetic(Operation.DIV, type));
+                break;
+            default:
+                throw new CompilationErrorException("Unknown operation: " + operation);
+        }
+    }
+
+    public void negate(ProgramCompiler.ValueType type) {
+        add(IrInstruction.negate(type));
+    }
+
+    public void pop(ProgramCompiler.ValueType type) {
+        add(IrInstruction.pop(type));
+    }
+
+    public void cast(ProgramCompiler.ValueType from, ProgramCompiler.ValueType to) {
+        add(IrInstruction.cast(from, to));
+    }
+
+    // casts int under double on stack top to double
+    public void castSecond() {
+        add(IrInstruction.castSecond());
+    }
+
+    // array of elements of given type, size is on stack
+    public void newArray(ProgramCompiler.ValueType elementType) {
+        add(IrInstruction.array(Operation.NEW_ARRAY, elementType));
+    }
+
+    public void arrayLoad(ProgramCompiler.ValueType elementType) {
+        add(IrInstruction.array(Operation.ARRAY_LOAD, elementType));
+    }
+
+    public void arrayStore(ProgramCompiler.ValueType elementType) {
+        add(IrInstruction.array(Operation.ARRAY_STORE, elementType));
+    }
+
+    public void compare(int nanResult) {
+        add(IrInstruction.compare(nanResult));
+    }
+
+    public void branch(Condition condition, String label) {
+        add(IrInstruction.branch(condition, label));
+    }
+
+    public void branchCompare(Condition condition, String label) {
+        add(IrInstruction.branchCompare(condition, label));
+    }
+
+    public void jump(String label) {
+        add(IrInstruction.jump(label));
+    }
+
+    public void returnValue(ProgramCompiler.ValueType type) {
+        add(IrInstruction.returnValue(type));
+    }
+
+    public void getStatic(String owner, String name, String descriptor) {
+        add(IrInstruction.getStatic(owner, name, descriptor));
+    }
+
+    public void invokeStatic(String owner, MethodSignature signature) {
+        add(IrInstruction.invoke(Operation.INVOKE_STATIC, owner, signature));
+    }
+
+    public void invokeVirtual(String owner, MethodSignature signature) {
+        add(IrInstruction.invoke(Operation.INVOKE_VIRTUAL, owner, signature));
+    }
+
+    public void comment(String text) {
+        add(IrInstruction.comment(text));
+    }
+
+    public void label(String label) throws CompilationErrorException {
+        if (labels.containsKey(label)) {
+            throw new CompilationErrorException("Label " + label + " is defined twice");
+        }
+
+        current = newBlock(label);
+        labels.put(label, current);
+    }
+
+    // links blocks with their successors, first registers are method parameters
+    public MethodIr build(MethodSignature signature, int parametersCount) throws CompilationErrorException {
+        for (int i = 0; i < blocks.size(); i++) {
+            BasicBlock block = blocks.get(i);
+
+            if (!block.isEmpty()) {
+                IrInstruction last = block.getInstructions().get(block.getInstructions().size() - 1);
+
+                if (last.isJump()) {
+                    BasicBlock target = labels.get(last.getLabel());
+
+                    if (target == null) {
+                        throw new CompilationErrorException("Jump to unknown label " + last.getLabel() + " in method " + signature.getName());
+                    }
+
+                    block.addSuccessor(target);
+                }
+            }
+
+            if (!block.isTerminated() && i + 1 < blocks.size()) {
+                block.addSuccessor(blocks.get(i + 1));
+            }
+        }
+
+        return new MethodIr(signature, registers, parametersCount, blocks, labels);
+    }
+
+    private void add(IrInstruction instruction) {
+        if (current == null || current.isClosed()) {
+            current = newBlock(null);
+        }
+
+        current.add(instruction);
+    }
+
+    private BasicBlock newBlock(String label) {
+        BasicBlock block = new BasicBlock(blocks.size(), label);
+        blocks.add(block);
+
+        return block;
+    }
+}
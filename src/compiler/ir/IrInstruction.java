@@ -0,0 +1,208 @@
+package compiler.ir;
+
+import compiler.MethodSignature;
+import compiler.ProgramCompiler;
+
+// one instruction of typed stack code, operands are taken from stack and results are pushed back to it
+public final class IrInstruction {
+    private final Operation operation;
+
+    // type of operands, for casts type of value before cast
+    private final ProgramCompiler.ValueType type;
+    // type of value after cast
+    private final ProgramCompiler.ValueType targetType;
+
+    private final Register register;
+
+    // constant value, jump target label or comment text
+    private final String value;
+
+    private final Condition condition;
+
+    // field or method owner class, field name and descriptor
+    private final String owner;
+    private final String name;
+    private final String descriptor;
+
+    private final MethodSignature signature;
+
+    // result of COMPARE, when one of values is NaN
+    private final int nanResult;
+
+    private IrInstruction(Operation operation, ProgramCompiler.ValueType type, ProgramCompiler.ValueType targetType,
+                          Register register, String value, Condition condition,
+                          String owner, String name, String descriptor, MethodSignature signature, int nanResult) {
+        this.operation = operation;
+        this.type = type;
+        this.targetType = targetType;
+        this.register = register;
+        this.value = value;
+        this.condition = condition;
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.signature = signature;
+        this.nanResult = nanResult;
+    }
+
+    private static IrInstruction simple(Operation operation, ProgramCompiler.ValueType type) {
+        return new IrInstruction(operation, type, null, null, null, null, null, null, null, null, 0);
+    }
+
+    public static IrInstruction constant(ProgramCompiler.ValueType type, String value) {
+        return new IrInstruction(Operation.CONSTANT, type, null, null, value, null, null, null, null, null, 0);
+    }
+
+    public static IrInstruction load(Register register) {
+        return new IrInstruction(Operation.LOAD, register.getType(), null, register, null, null, null, null, null, null, 0);
+    }
+
+    public static IrInstruction store(Register register) {
+        return new IrInstruction(Operation.STORE, register.getType(), null, register, null, null, null, null, null, null, 0);
+    }
+
+    public static IrInstruction arithmetic(Operation operation, ProgramCompiler.ValueType type) {
+        return simple(operation, type);
+    }
+
+    public static IrInstruction negate(ProgramCompiler.ValueType type) {
+        return simple(Operation.NEGATE, type);
+    }
+
+    public static IrInstruction pop(ProgramCompiler.ValueType type) {
+        return simple(Operation.POP, type);
+    }
+
+    public static IrInstruction cast(ProgramCompiler.ValueType from, ProgramCompiler.ValueType to) {
+        return new IrInstruction(Operation.CAST, from, to, null, null, null, null, null, null, null, 0);
+    }
+
+    public static IrInstruction array(Operation operation, ProgramCompiler.ValueType elementType) {
+        return simple(operation, elementType);
+    }
+
+    public static IrInstruction castSecond() {
+        return new IrInstruction(Operation.CAST_SECOND, ProgramCompiler.ValueType.I, ProgramCompiler.ValueType.D, null, null, null, null, null, null, null, 0);
+    }
+
+    public static IrInstruction compare(int nanResult) {
+        return new IrInstruction(Operation.COMPARE, ProgramCompiler.ValueType.D, null, null, null, null, null, null, null, null, nanResult);
+    }
+
+    public static IrInstruction branch(Condition condition, String label) {
+        return new IrInstruction(Operation.BRANCH, ProgramCompiler.ValueType.I, null, null, label, condition, null, null, null, null, 0);
+    }
+
+    public static IrInstruction branchCompare(Condition condition, String label) {
+        return new IrInstruction(Operation.BRANCH_COMPARE, ProgramCompiler.ValueType.I, null, null, label, condition, null, null, null, null, 0);
+    }
+
+    public static IrInstruction jump(String label) {
+        return new IrInstruction(Operation.GOTO, null, null, null, label, null, null, null, null, null, 0);
+    }
+
+    public static IrInstruction returnValue(ProgramCompiler.ValueType type) {
+        return simple(Operation.RETURN, type);
+    }
+
+    public static IrInstruction getStatic(String owner, String name, String descriptor) {
+        return new IrInstruction(Operation.GET_STATIC, null, null, null, null, null, owner, name, descriptor, null, 0);
+    }
+
+    public static IrInstruction invoke(Operation operation, String owner, MethodSignature signature) {
+        return new IrInstruction(operation, signature.getResultType(), null, null, null, null,
+                owner, signature.getName(), signature.getDescriptor(), signature, 0);
+    }
+
+    public static IrInstruction comment(String text) {
+        return new IrInstruction(Operation.COMMENT, null, null, null, text, null, null, null, null, null, 0);
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public ProgramCompiler.ValueType getType() {
+        return type;
+    }
+
+    public ProgramCompiler.ValueType getTargetType() {
+        return targetType;
+    }
+
+    public Register getRegister() {
+        return register;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getLabel() {
+        return value;
+    }
+
+    public Condition getCondition() {
+        return condition;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public MethodSignature getSignature() {
+        return signature;
+    }
+
+    public int getNanResult() {
+        return nanResult;
+    }
+
+    public boolean isJump() {
+        return operation == Operation.BRANCH || operation == Operation.BRANCH_COMPARE || operation == Operation.GOTO;
+    }
+
+    // control never continues to the next instruction
+    public boolean isTerminator() {
+        return operation == Operation.GOTO || operation == Operation.RETURN;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(operation.name().toLowerCase());
+
+        if (type != null) {
+            result.append('.').append(type);
+        }
+
+        if (targetType != null) {
+            result.append(" -> ").append(targetType);
+        }
+
+        if (register != null) {
+            result.append(' ').append(register);
+        }
+
+        if (condition != null) {
+            result.append(' ').append(condition);
+        }
+
+        if (value != null) {
+            result.append(' ').append(value);
+        }
+
+        if (name != null) {
+            result.append(' ').append(owner).append('.').append(name).append(descriptor);
+        }
+
+        return result.toString();
+    }
+}
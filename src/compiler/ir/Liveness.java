@@ -0,0 +1,77 @@
+package compiler.ir;
+
+import java.util.BitSet;
+import java.util.List;
+
+// registers, whose values can still be loaded at the start and at the end of each block
+public class Liveness {
+    private final BitSet[] liveIn;
+    private final BitSet[] liveOut;
+
+    public Liveness(MethodIr method) {
+        List<BasicBlock> blocks = method.getBlocks();
+
+        BitSet[] used = new BitSet[blocks.size()];
+        BitSet[] defined = new BitSet[blocks.size()];
+
+        liveIn = new BitSet[blocks.size()];
+        liveOut = new BitSet[blocks.size()];
+
+        for (BasicBlock block : blocks) {
+            int id = block.getId();
+
+            used[id] = new BitSet();
+            defined[id] = new BitSet();
+            liveIn[id] = new BitSet();
+            liveOut[id] = new BitSet();
+
+            for (IrInstruction instruction : block.getInstructions()) {
+                if (instruction.getOperation() == Operation.LOAD) {
+                    // loaded before any store in this block
+                    if (!defined[id].get(instruction.getRegister().getId())) {
+                        used[id].set(instruction.getRegister().getId());
+                    }
+                } else if (instruction.getOperation() == Operation.STORE) {
+                    defined[id].set(instruction.getRegister().getId());
+                }
+            }
+        }
+
+        // blocks are visited backwards, so that most values are known in one pass,
+        // jumps back make further passes necessary
+        boolean changed = true;
+
+        while (changed) {
+            changed = false;
+
+            for (int i = blocks.size() - 1; i >= 0; i--) {
+                BasicBlock block = blocks.get(i);
+                int id = block.getId();
+
+                BitSet out = new BitSet();
+
+                for (BasicBlock successor : block.getSuccessors()) {
+                    out.or(liveIn[successor.getId()]);
+                }
+
+                BitSet in = (BitSet) out.clone();
+                in.andNot(defined[id]);
+                in.or(used[id]);
+
+                if (!in.equals(liveIn[id]) || !out.equals(liveOut[id])) {
+                    liveIn[id] = in;
+                    liveOut[id] = out;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    public BitSet getLiveIn(BasicBlock block) {
+        return (BitSet) liveIn[block.getId()].clone();
+    }
+
+    public BitSet getLiveOut(BasicBlock block) {
+        return (BitSet) liveOut[block.getId()].clone();
+    }
+}
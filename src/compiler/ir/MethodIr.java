@@ -0,0 +1,60 @@
+package compiler.ir;
+
+import compiler.MethodSignature;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// typed stack code of one method split into basic blocks, blocks are kept in order they are generated
+public final class MethodIr {
+    private final MethodSignature signature;
+
+    // parameters come first, in order of declaration
+    private final List<Register> registers;
+    private final int parametersCount;
+
+    private final List<BasicBlock> blocks;
+    private final Map<String, BasicBlock> labels;
+
+    MethodIr(MethodSignature signature, List<Register> registers, int parametersCount,
+             List<BasicBlock> blocks, Map<String, BasicBlock> labels) {
+        this.signature = signature;
+        this.registers = Collections.unmodifiableList(registers);
+        this.parametersCount = parametersCount;
+        this.blocks = Collections.unmodifiableList(blocks);
+        this.labels = labels;
+    }
+
+    public MethodSignature getSignature() {
+        return signature;
+    }
+
+    public List<Register> getRegisters() {
+        return registers;
+    }
+
+    public int getParametersCount() {
+        return parametersCount;
+    }
+
+    public List<BasicBlock> getBlocks() {
+        return blocks;
+    }
+
+    // block starting with given label or null
+    public BasicBlock getBlock(String label) {
+        return labels.get(label);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(signature.toString()).append('\n');
+
+        for (BasicBlock block : blocks) {
+            result.append(block);
+        }
+
+        return result.toString();
+    }
+}
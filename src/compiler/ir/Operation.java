@@ -0,0 +1,42 @@
+package compiler.ir;
+
+public enum Operation {
+    CONSTANT,
+    LOAD,
+    STORE,
+
+    ADD,
+    SUB,
+    MUL,
+    DIV,
+    NEGATE,
+
+    // drops value of given type from stack top
+    POP,
+
+    // cast of stack top
+    CAST,
+    // cast of int under double on stack top
+    CAST_SECOND,
+
+    // typed by element type: size -> array, array index -> value, array index value ->
+    NEW_ARRAY,
+    ARRAY_LOAD,
+    ARRAY_STORE,
+
+    // compares two doubles and pushes int -1, 0 or 1
+    COMPARE,
+
+    // compares int on stack top with zero
+    BRANCH,
+    // compares two ints on stack top
+    BRANCH_COMPARE,
+    GOTO,
+    RETURN,
+
+    GET_STATIC,
+    INVOKE_STATIC,
+    INVOKE_VIRTUAL,
+
+    COMMENT
+}
@@ -0,0 +1,34 @@
+package compiler.ir;
+
+import compiler.ProgramCompiler;
+
+// virtual register holding one local variable,
+// registers get JVM local variable slots only when code is generated
+public final class Register {
+    private final int id;
+    private final String name;
+    private final ProgramCompiler.ValueType type;
+
+    Register(int id, String name, ProgramCompiler.ValueType type) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ProgramCompiler.ValueType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return "r" + id + ":" + type;
+    }
+}
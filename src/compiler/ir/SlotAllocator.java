@@ -0,0 +1,133 @@
+package compiler.ir;
+
+import compiler.ProgramCompiler;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// gives every register JVM local variable slot, registers, which are never live at the same time, share slots
+public class SlotAllocator {
+    private final int[] slots;
+    private int localsSize;
+
+    public SlotAllocator(MethodIr method) {
+        List<Register> registers = method.getRegisters();
+
+        slots = new int[registers.size()];
+        Arrays.fill(slots, -1);
+
+        BitSet[] interference = interference(method);
+
+        // parameters are passed in the first slots in order of declaration
+        int parametersSize = 0;
+
+        for (int i = 0; i < method.getParametersCount(); i++) {
+            slots[i] = parametersSize;
+            parametersSize += size(registers.get(i));
+        }
+
+        // arguments without registers (String[] of main) are never overwritten
+        int argumentsSize = method.getSignature().getArgumentsSize();
+        int reservedSize = Math.max(argumentsSize - parametersSize, 0);
+
+        localsSize = parametersSize + reservedSize;
+
+        for (int i = method.getParametersCount(); i < registers.size(); i++) {
+            int slot = 0;
+
+            while (!fits(registers.get(i), slot, interference[i], registers)
+                    || (reservedSize > 0 && overlaps(slot, size(registers.get(i)), parametersSize, reservedSize))) {
+                slot++;
+            }
+
+            slots[i] = slot;
+            localsSize = Math.max(localsSize, slot + size(registers.get(i)));
+        }
+    }
+
+    public int getSlot(Register register) {
+        return slots[register.getId()];
+    }
+
+    // words of local variables needed by method
+    public int getLocalsSize() {
+        return localsSize;
+    }
+
+    // registers, which can hold different values at the same time
+    private static BitSet[] interference(MethodIr method) {
+        int count = method.getRegisters().size();
+
+        BitSet[] result = new BitSet[count];
+
+        for (int i = 0; i < count; i++) {
+            result[i] = new BitSet();
+        }
+
+        if (method.getBlocks().isEmpty()) {
+            return result;
+        }
+
+        Liveness liveness = new Liveness(method);
+
+        for (BasicBlock block : method.getBlocks()) {
+            BitSet live = liveness.getLiveOut(block);
+            List<IrInstruction> instructions = block.getInstructions();
+
+            for (int i = instructions.size() - 1; i >= 0; i--) {
+                IrInstruction instruction = instructions.get(i);
+
+                if (instruction.getOperation() == Operation.STORE) {
+                    // stored value must not overwrite anything, which is loaded later,
+                    // even when it is never loaded itself
+                    int register = instruction.getRegister().getId();
+
+                    live.clear(register);
+                    interfere(result, register, live);
+                } else if (instruction.getOperation() == Operation.LOAD) {
+                    live.set(instruction.getRegister().getId());
+                }
+            }
+        }
+
+        // parameters get their values on method entry
+        BitSet entry = liveness.getLiveIn(method.getBlocks().get(0));
+        entry.set(0, method.getParametersCount());
+
+        for (int i = 0; i < method.getParametersCount(); i++) {
+            BitSet others = (BitSet) entry.clone();
+            others.clear(i);
+
+            interfere(result, i, others);
+        }
+
+        return result;
+    }
+
+    private static void interfere(BitSet[] interference, int register, BitSet live) {
+        interference[register].or(live);
+
+        for (int other = live.nextSetBit(0); other >= 0; other = live.nextSetBit(other + 1)) {
+            interference[other].set(register);
+        }
+    }
+
+    private boolean fits(Register register, int slot, BitSet interference, List<Register> registers) {
+        for (int other = interference.nextSetBit(0); other >= 0; other = interference.nextSetBit(other + 1)) {
+            if (slots[other] >= 0 && overlaps(slot, size(register), slots[other], size(registers.get(other)))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean overlaps(int start, int size, int otherStart, int otherSize) {
+        return start < otherStart + otherSize && otherStart < start + size;
+    }
+
+    private static int size(Register register) {
+        return register.getType() == ProgramCompiler.ValueType.D ? 2 : 1;
+    }
+}
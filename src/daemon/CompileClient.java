@@ -0,0 +1,78 @@
+package daemon;
+
+import compiler.CompilationErrorException;
+import parser.ParsingErrorException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+// connection to CompileDaemon, requests are sent one after another over the same connection
+public class CompileClient implements Closeable {
+    private final SocketChannel connection;
+
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public CompileClient(SocketAddress address) throws IOException {
+        connection = SocketChannel.open(address instanceof UnixDomainSocketAddress
+                ? StandardProtocolFamily.UNIX
+                : StandardProtocolFamily.INET);
+        connection.connect(address);
+
+        in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(connection)));
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(connection)));
+    }
+
+    public byte[] compileClassFile(byte[] source, String className)
+            throws IOException, ParsingErrorException, CompilationErrorException {
+        return request(CompileDaemon.CLASS_FORMAT, className, source);
+    }
+
+    public String compileJasmin(byte[] source, String className)
+            throws IOException, ParsingErrorException, CompilationErrorException {
+        return new String(request(CompileDaemon.JASMIN_FORMAT, className, source), StandardCharsets.UTF_8);
+    }
+
+    private synchronized byte[] request(String format, String className, byte[] source)
+            throws IOException, ParsingErrorException, CompilationErrorException {
+        out.writeUTF(format);
+        out.writeUTF(className);
+        out.writeInt(source.length);
+        out.write(source);
+        out.flush();
+
+        byte status = in.readByte();
+
+        switch (status) {
+            case CompileDaemon.OK:
+                byte[] result = new byte[in.readInt()];
+                in.readFully(result);
+
+                return result;
+
+            case CompileDaemon.PARSING_ERROR:
+                throw new ParsingErrorException(in.readUTF());
+
+            case CompileDaemon.COMPILATION_ERROR:
+                throw new CompilationErrorException(in.readUTF());
+
+            default:
+                throw new IOException("Wrong response status: " + status);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        connection.close();
+    }
+}
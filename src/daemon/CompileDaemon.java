@@ -0,0 +1,205 @@
+package daemon;
+
+import compiler.CompilationErrorException;
+import driver.CompilerDriver;
+import metrics.CompilerMetrics;
+import parser.ParsingErrorException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// keeps compiler loaded in one long running JVM, so that compilations run JIT compiled code,
+// and serves compile requests over loopback TCP or Unix domain socket.
+// Every connection can send any number of requests:
+// request: format as UTF, class name as UTF, source length as int, source bytes;
+// response: OK, length as int and bytes of class file or UTF-8 Jasmin text,
+// or PARSING_ERROR / COMPILATION_ERROR and message as UTF.
+// Every connection gets its own thread, which mostly waits for the next request,
+// number of compilations running at the same time is limited separately
+public class CompileDaemon implements Closeable {
+    public static final String CLASS_FORMAT = "class";
+    public static final String JASMIN_FORMAT = "jasmin";
+
+    static final byte OK = 0;
+    static final byte PARSING_ERROR = 1;
+    static final byte COMPILATION_ERROR = 2;
+
+    static final int MAX_SOURCE_SIZE = 64 * 1024 * 1024;
+
+    private static final String WARM_UP_PROGRAM =
+            "double average(int a, double b) { double c; c = (a + b) / 2; if (c > 10 && !(a == 0)) { return c - 1; }; return c; }\n" +
+            "int square(int a) { return a * a; }\n" +
+            "void main() { print average(square(3), 2.5); print 2 ^ 10; }\n";
+
+    private final ServerSocketChannel server;
+    private final SocketAddress address;
+
+    // threads of open connections
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+
+    // permits for compilations running at the same time
+    private final Semaphore compilations;
+
+    // shared by all requests, can be registered to JMX
+    private final CompilerMetrics metrics = new CompilerMetrics();
+
+    private Thread acceptor;
+
+    public CompileDaemon(SocketAddress address, int threads) throws IOException {
+        server = ServerSocketChannel.open(address instanceof UnixDomainSocketAddress
+                ? StandardProtocolFamily.UNIX
+                : StandardProtocolFamily.INET);
+        server.bind(address);
+
+        this.address = server.getLocalAddress();
+        this.compilations = new Semaphore(Math.max(threads, 1));
+    }
+
+    // actual address, port is known here, when daemon was bound to port 0
+    public SocketAddress getAddress() {
+        return address;
+    }
+
+    public CompilerMetrics getMetrics() {
+        return metrics;
+    }
+
+    // compiles small program many times, so that first requests do not run in interpreter
+    public void warmUp(int iterations) throws ParsingErrorException, CompilationErrorException {
+        byte[] source = WARM_UP_PROGRAM.getBytes(StandardCharsets.UTF_8);
+
+        CompilerDriver driver = new CompilerDriver();
+
+        for (int i = 0; i < iterations; i++) {
+            driver.compile(source);
+            driver.compileJasmin(source);
+        }
+    }
+
+    // accepts connections on background thread until close()
+    public void start() {
+        acceptor = new Thread(this::acceptConnections, "compile-daemon");
+        acceptor.start();
+    }
+
+    // blocks until daemon is closed
+    public void join() throws InterruptedException {
+        acceptor.join();
+    }
+
+    private void acceptConnections() {
+        while (server.isOpen()) {
+            try {
+                SocketChannel connection = server.accept();
+
+                connections.execute(() -> serve(connection));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Cannot accept connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(SocketChannel connection) {
+        try (connection) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(connection)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(connection)));
+
+            while (true) {
+                String format;
+
+                try {
+                    format = in.readUTF();
+                } catch (EOFException e) {
+                    return;
+                }
+
+                String className = in.readUTF();
+                int length = in.readInt();
+
+                if (length < 0 || length > MAX_SOURCE_SIZE) {
+                    throw new IOException("Wrong source length: " + length);
+                }
+
+                byte[] source = new byte[length];
+                in.readFully(source);
+
+                respond(out, format, className, source);
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Connection failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            // daemon is closed
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void respond(DataOutputStream out, String format, String className, byte[] source)
+            throws IOException, InterruptedException {
+        CompilerDriver driver = new CompilerDriver();
+        driver.setClassName(className);
+        driver.setMetrics(metrics);
+
+        byte[] result;
+
+        compilations.acquire();
+
+        try {
+            if (format.equals(CLASS_FORMAT)) {
+                result = driver.compile(source);
+            } else if (format.equals(JASMIN_FORMAT)) {
+                result = driver.compileJasmin(source).getBytes(StandardCharsets.UTF_8);
+            } else {
+                throw new CompilationErrorException("Unknown output format: " + format);
+            }
+        } catch (ParsingErrorException e) {
+            out.writeByte(PARSING_ERROR);
+            out.writeUTF(String.valueOf(e.getMessage()));
+            return;
+        } catch (CompilationErrorException e) {
+            out.writeByte(COMPILATION_ERROR);
+            out.writeUTF(String.valueOf(e.getMessage()));
+            return;
+        } catch (RuntimeException e) {
+            // bug of compiler must not drop connection without answer
+            out.writeByte(COMPILATION_ERROR);
+            out.writeUTF("Internal compiler error: " + e);
+            return;
+        } finally {
+            compilations.release();
+        }
+
+        out.writeByte(OK);
+        out.writeInt(result.length);
+        out.write(result);
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        connections.shutdownNow();
+
+        if (address instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package driver;
+
+import compiler.CompilationErrorException;
+import metrics.CompilerMetrics;
+import parser.ParsingErrorException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// compiles many source files in one JVM on bounded number of threads,
+// every file gets its own class name and class file in output directory
+public class BatchCompiler {
+    public static final String SOURCE_EXTENSION = ".c";
+    public static final String CLASS_FILE_EXTENSION = ".class";
+
+    // outcome of one source file
+    public static class Result {
+        private final Path source;
+        private final String className;
+        private final Path output;
+
+        // null for successful compilation
+        private final Exception error;
+
+        private Result(Path source, String className, Path output, Exception error) {
+            this.source = source;
+            this.className = className;
+            this.output = output;
+            this.error = error;
+        }
+
+        public Path getSource() {
+            return source;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public Path getOutput() {
+            return output;
+        }
+
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+
+    private final Path outputDirectory;
+    private final int threads;
+
+    private boolean optimize = true;
+    private CompilerMetrics metrics = CompilerMetrics.NONE;
+
+    public BatchCompiler(Path outputDirectory) {
+        this(outputDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchCompiler(Path outputDirectory, int threads) {
+        this.outputDirectory = outputDirectory;
+        this.threads = Math.max(threads, 1);
+    }
+
+    public void setOptimize(boolean optimize) {
+        this.optimize = optimize;
+    }
+
+    // shared by all files of batch
+    public void setMetrics(CompilerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // inputs are source files and directories, which are searched for source files recursively,
+    // results are in order of inputs and sorted by path inside every directory
+    public List<Result> compile(List<Path> inputs) throws IOException, CompilationErrorException {
+        List<Path> sources = new ArrayList<>();
+        List<String> classNames = new ArrayList<>();
+        Set<String> usedNames = new HashSet<>();
+
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                for (Path source : sourcesOf(input)) {
+                    sources.add(source);
+                    classNames.add(uniqueName(className(input.relativize(source)), usedNames));
+                }
+            } else {
+                sources.add(input);
+                classNames.add(uniqueName(className(input.getFileName()), usedNames));
+            }
+        }
+
+        Files.createDirectories(outputDirectory);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Result>> tasks = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                Path source = sources.get(i);
+                String className = classNames.get(i);
+
+                tasks.add(executor.submit(() -> compile(source, className)));
+            }
+
+            List<Result> results = new ArrayList<>();
+
+            for (Future<Result> task : tasks) {
+                results.add(task.get());
+            }
+
+            return results;
+        } catch (ExecutionException e) {
+            throw new CompilationErrorException("Batch compilation failed: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new CompilationErrorException("Batch compilation was interrupted");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // errors of one file do not stop the others
+    private Result compile(Path source, String className) {
+        Path output = outputDirectory.resolve(className + CLASS_FILE_EXTENSION);
+
+        CompilerDriver driver = new CompilerDriver();
+        driver.setOptimize(optimize);
+        driver.setMetrics(metrics);
+        driver.setClassName(className);
+
+        try {
+            Files.write(output, driver.compile(source));
+
+            return new Result(source, className, output, null);
+        } catch (IOException | ParsingErrorException | CompilationErrorException e) {
+            return new Result(source, className, null, e);
+        } catch (RuntimeException e) {
+            // bug of compiler fails only its file, not the whole batch
+            CompilationErrorException error = new CompilationErrorException("Internal compiler error: " + e);
+            error.initCause(e);
+
+            return new Result(source, className, null, error);
+        }
+    }
+
+    private static List<Path> sourcesOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(path -> Files.isRegularFile(path) && path.toString().endsWith(SOURCE_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // path elements without extension joined by '_', characters, which cannot be in class name, become '_'
+    private static String className(Path relativePath) {
+        StringBuilder result = new StringBuilder();
+
+        for (Path element : relativePath) {
+            if (result.length() > 0) {
+                result.append('_');
+            }
+
+            result.append(element.toString());
+        }
+
+        if (result.toString().endsWith(SOURCE_EXTENSION)) {
+            result.setLength(result.length() - SOURCE_EXTENSION.length());
+        }
+
+        for (int i = 0; i < result.length(); i++) {
+            if (!Character.isJavaIdentifierPart(result.charAt(i)) || result.charAt(i) == '$') {
+                result.setCharAt(i, '_');
+            }
+        }
+
+        if (result.length() == 0 || !Character.isJavaIdentifierStart(result.charAt(0))) {
+            result.insert(0, '_');
+        }
+
+        return result.toString();
+    }
+
+    // names, which differ only in letter case, would collide in file systems, which ignore case
+    private static String uniqueName(String name, Set<String> usedNames) {
+        String result = name;
+
+        for (int i = 2; !usedNames.add(result.toLowerCase()); i++) {
+            result = name + "_" + i;
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,190 @@
+package driver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// compiled classes stored in directory under SHA-256 of source and compiler options,
+// least recently used entries are removed, when directory grows over size limit
+public class CompileCache {
+    public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+    private static final String ENTRY_SUFFIX = ".class";
+
+    // entry with attributes read once, so that sorting does no file access
+    // and is not affected by get() touching entries meanwhile
+    private static class Entry {
+        private final Path path;
+        private final long size;
+        private final FileTime lastModified;
+
+        private Entry(Path path, long size, FileTime lastModified) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final Path directory;
+    private final long maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // size of entries counted by puts since the last directory scan, -1 before the first scan,
+    // entries written by other compilers are found only by the next scan
+    private long size = -1;
+
+    public CompileCache(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_SIZE);
+    }
+
+    public CompileCache(Path directory, long maxSize) throws IOException {
+        this.directory = directory;
+        this.maxSize = maxSize;
+
+        Files.createDirectories(directory);
+    }
+
+    public static String key(byte[] source, String options) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            digest.update(options.getBytes(StandardCharsets.UTF_8));
+            // separator keeps options and source from running into each other
+            digest.update((byte) 0);
+            digest.update(source);
+
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // cached class or null, if there is none
+    public byte[] get(String key) {
+        Path entry = entry(key);
+
+        try {
+            byte[] result = Files.readAllBytes(entry);
+
+            // access time is what LRU order is based on
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+
+            hits.incrementAndGet();
+
+            return result;
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+        } catch (IOException e) {
+            System.err.println("Cannot read cache entry " + entry + ": " + e.getMessage());
+            misses.incrementAndGet();
+        }
+
+        return null;
+    }
+
+    public void put(String key, byte[] classBytes) {
+        Path entry = entry(key);
+
+        try {
+            long replacedSize = sizeOf(entry);
+
+            // other compilers may read the directory at the same time, so entry appears only when it is complete
+            Path temporary = Files.createTempFile(directory, key, ".tmp");
+
+            Files.write(temporary, classBytes);
+            Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            grow(classBytes.length - replacedSize);
+        } catch (IOException e) {
+            System.err.println("Cannot write cache entry " + entry + ": " + e.getMessage());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private Path entry(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    // directory is scanned only when counted size goes over the limit
+    private synchronized void grow(long added) throws IOException {
+        if (size >= 0) {
+            size += added;
+        }
+
+        if (size < 0 || size > maxSize) {
+            evict();
+        }
+    }
+
+    private synchronized void evict() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (Path path : stream) {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+                    entries.add(new Entry(path, attributes.size(), attributes.lastModifiedTime()));
+                    total += attributes.size();
+                } catch (NoSuchFileException e) {
+                    // already removed by other compiler
+                }
+            }
+        }
+
+        if (total > maxSize) {
+            entries.sort(Comparator.comparing(entry -> entry.lastModified));
+
+            for (Entry entry : entries) {
+                if (total <= maxSize) {
+                    break;
+                }
+
+                if (Files.deleteIfExists(entry.path)) {
+                    total -= entry.size;
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        size = total;
+    }
+
+    // size of existing entry or 0
+    private static long sizeOf(Path entry) throws IOException {
+        try {
+            return Files.size(entry);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+}
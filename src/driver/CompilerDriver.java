@@ -0,0 +1,213 @@
+package driver;
+
+import compiler.CompilationErrorException;
+import compiler.ProgramCompiler;
+import metrics.CompilerMetrics;
+import optimizer.ConstantFolder;
+import parser.Parser;
+import parser.ParsingErrorException;
+import parser.nodes.Node;
+import tokenizer.IllegalCharacterException;
+import tokenizer.TokenStream;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// compiles source to class file bytes, whole pipeline is skipped, when cache already has the result
+public class CompilerDriver {
+    // part of cache key, has to be changed whenever the same source starts to give different code
+    public static final String VERSION = "1";
+
+    // null when results are not cached
+    private final CompileCache cache;
+
+    private boolean optimize = true;
+
+    private CompilerMetrics metrics = CompilerMetrics.NONE;
+
+    private String className = ProgramCompiler.CLASS_NAME;
+
+    public CompilerDriver() {
+        this(null);
+    }
+
+    public CompilerDriver(CompileCache cache) {
+        this.cache = cache;
+    }
+
+    public CompileCache getCache() {
+        return cache;
+    }
+
+    // constant folding and peephole optimization
+    public void setOptimize(boolean optimize) {
+        this.optimize = optimize;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    // phases of compilations, which are not taken from cache, are recorded to given metrics
+    public void setMetrics(CompilerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public CompilerMetrics getMetrics() {
+        return metrics;
+    }
+
+    public byte[] compile(Path source) throws IOException, ParsingErrorException, CompilationErrorException {
+        return compile(Files.readAllBytes(source));
+    }
+
+    public byte[] compile(byte[] source) throws ParsingErrorException, CompilationErrorException {
+        String key = null;
+
+        if (cache != null) {
+            key = CompileCache.key(source, options());
+
+            byte[] cached = cache.get(key);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        byte[] result = compileSource(source);
+
+        if (cache != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    // Jasmin text is not cached
+    public String compileJasmin(byte[] source) throws ParsingErrorException, CompilationErrorException {
+        Node root = parse(source);
+
+        ProgramCompiler compiler = newProgramCompiler();
+        StringWriter writer = new StringWriter();
+
+        CompilerMetrics.Measurement compiling = metrics.start(CompilerMetrics.Phase.COMPILE);
+
+        try {
+            compiler.compileProgram(root, writer);
+        } finally {
+            compiling.close();
+        }
+
+        String result = writer.toString();
+
+        metrics.add(CompilerMetrics.Counter.METHODS, root.getChildren().size());
+        metrics.add(CompilerMetrics.Counter.INSTRUCTIONS, compiler.getInstructionsCount());
+
+        // counted as UTF-8, the encoding Jasmin files and daemon responses are written in
+        if (metrics.isEnabled()) {
+            metrics.add(CompilerMetrics.Counter.BYTES_WRITTEN, result.getBytes(StandardCharsets.UTF_8).length);
+        }
+
+        return result;
+    }
+
+    private byte[] compileSource(byte[] source) throws ParsingErrorException, CompilationErrorException {
+        Node root = parse(source);
+
+        ProgramCompiler compiler = newProgramCompiler();
+
+        byte[] result;
+
+        CompilerMetrics.Measurement compiling = metrics.start(CompilerMetrics.Phase.COMPILE);
+
+        try {
+            result = compiler.compileClassFile(root);
+        } finally {
+            compiling.close();
+        }
+
+        metrics.add(CompilerMetrics.Counter.METHODS, root.getChildren().size());
+        metrics.add(CompilerMetrics.Counter.INSTRUCTIONS, compiler.getInstructionsCount());
+        metrics.add(CompilerMetrics.Counter.BYTES_WRITTEN, result.length);
+
+        return result;
+    }
+
+    private ProgramCompiler newProgramCompiler() {
+        ProgramCompiler compiler = new ProgramCompiler();
+        compiler.setOptimize(optimize);
+        compiler.setClassName(className);
+
+        return compiler;
+    }
+
+    // source is tokenized at once before parsing, so that every phase is measured separately
+    private Node parse(byte[] source) throws ParsingErrorException {
+        char[] chars;
+
+        CompilerMetrics.Measurement reading = metrics.start(CompilerMetrics.Phase.READ);
+
+        try {
+            chars = new String(source, StandardCharsets.UTF_8).toCharArray();
+        } finally {
+            reading.close();
+        }
+
+        metrics.add(CompilerMetrics.Counter.CHARS_READ, chars.length);
+
+        TokenStream tokens;
+
+        CompilerMetrics.Measurement tokenizing = metrics.start(CompilerMetrics.Phase.TOKENIZE);
+
+        try {
+            tokens = TokenStream.tokenize(chars, chars.length);
+        } catch (IllegalCharacterException e) {
+            throw new ParsingErrorException("Illegal character: " + e.getMessage());
+        } finally {
+            tokenizing.close();
+        }
+
+        metrics.add(CompilerMetrics.Counter.TOKENS, tokens.size());
+
+        Node root;
+
+        CompilerMetrics.Measurement parsing = metrics.start(CompilerMetrics.Phase.PARSE);
+
+        try {
+            root = new Parser(tokens).parse();
+        } finally {
+            parsing.close();
+        }
+
+        if (metrics.isEnabled()) {
+            metrics.add(CompilerMetrics.Counter.NODES, root.countNodes());
+        }
+
+        if (optimize) {
+            ConstantFolder folder = new ConstantFolder();
+
+            CompilerMetrics.Measurement folding = metrics.start(CompilerMetrics.Phase.FOLD);
+
+            try {
+                root = folder.fold(root);
+            } finally {
+                folding.close();
+            }
+
+            metrics.add(CompilerMetrics.Counter.FOLDED_NODES, folder.getFoldedCount());
+        }
+
+        return root;
+    }
+
+    private String options() {
+        return "version=" + VERSION + ";optimize=" + optimize + ";class=" + className;
+    }
+}
@@ -0,0 +1,243 @@
+package driver;
+
+import compiler.CompilationErrorException;
+import compiler.InstructionList;
+import compiler.ProgramCompiler;
+import compiler.classfile.ClassFileEmitter;
+import optimizer.ConstantFolder;
+import parser.Parser;
+import parser.ParsingErrorException;
+import parser.nodes.MethodNode;
+import parser.nodes.Node;
+import parser.nodes.NodeType;
+import tokenizer.IllegalCharacterException;
+import tokenizer.Token;
+import tokenizer.TokenStream;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// compiles new versions of the same source, keeping parsed and compiled code of every method,
+// only methods, whose text or signatures of called methods changed, are parsed and compiled again
+public class IncrementalCompiler {
+    // parsed and compiled method, looked up by its source text
+    private static class CachedMethod {
+        private final MethodNode node;
+
+        // headers of called methods at the time method was compiled, null for unknown method
+        private final Map<String, String> calleeHeaders;
+
+        private InstructionList code;
+
+        private CachedMethod(MethodNode node, Map<String, String> calleeHeaders) {
+            this.node = node;
+            this.calleeHeaders = calleeHeaders;
+        }
+    }
+
+    // tokens of one method in whole source
+    private static class MethodSpan {
+        private final int start;
+        private final int end;
+        private final int bodyStart;
+
+        private MethodSpan(int start, int end, int bodyStart) {
+            this.start = start;
+            this.end = end;
+            this.bodyStart = bodyStart;
+        }
+    }
+
+    // methods of the last compiled version
+    private Map<String, CachedMethod> methods = new HashMap<>();
+
+    private boolean optimize = true;
+
+    private int compiledCount = 0;
+    private int reusedCount = 0;
+
+    // constant folding and peephole optimization, changing it drops all cached methods
+    public void setOptimize(boolean optimize) {
+        if (this.optimize != optimize) {
+            methods = new HashMap<>();
+        }
+
+        this.optimize = optimize;
+    }
+
+    // methods compiled by the last compile() call
+    public int getCompiledCount() {
+        return compiledCount;
+    }
+
+    // methods taken from cache by the last compile() call
+    public int getReusedCount() {
+        return reusedCount;
+    }
+
+    public byte[] compile(CharSequence source) throws ParsingErrorException, CompilationErrorException {
+        TokenStream tokens;
+
+        try {
+            tokens = TokenStream.tokenize(source);
+        } catch (IllegalCharacterException e) {
+            throw new ParsingErrorException("Illegal character: " + e.getMessage());
+        }
+
+        List<MethodSpan> spans = split(tokens);
+
+        // header is everything before method body: result type, name and parameters
+        Map<String, String> headers = new HashMap<>();
+
+        for (MethodSpan span : spans) {
+            headers.put(tokens.getValue(span.start + 1), text(tokens, source, span.start, span.bodyStart));
+        }
+
+        Map<String, CachedMethod> current = new HashMap<>();
+        List<CachedMethod> order = new ArrayList<>();
+        List<MethodNode> changed = new ArrayList<>();
+
+        for (MethodSpan span : spans) {
+            String text = text(tokens, source, span.start, span.end);
+            CachedMethod method = methods.get(text);
+
+            if (method == null || !isUpToDate(method, headers)) {
+                method = parse(text, callees(tokens, span), headers);
+                changed.add(method.node);
+            }
+
+            current.put(text, method);
+            order.add(method);
+        }
+
+        Node root = new Node(NodeType.PROGRAM);
+
+        for (CachedMethod method : order) {
+            root.addChild(method.node);
+        }
+
+        if (optimize) {
+            new ConstantFolder().fold(root, changed);
+        }
+
+        Map<MethodNode, InstructionList> compiled = new IdentityHashMap<>();
+
+        for (CachedMethod method : order) {
+            if (method.code != null) {
+                compiled.put(method.node, method.code);
+            }
+        }
+
+        reusedCount = compiled.size();
+        compiledCount = order.size() - reusedCount;
+
+        ProgramCompiler compiler = new ProgramCompiler();
+        compiler.setOptimize(optimize);
+
+        ClassFileEmitter emitter = new ClassFileEmitter();
+        compiler.compileProgram(root, emitter, compiled);
+
+        for (CachedMethod method : order) {
+            method.code = compiled.get(method.node);
+        }
+
+        // methods, which are not in this version any more, are dropped
+        methods = current;
+
+        return emitter.toByteArray();
+    }
+
+    // method can be reused, if all methods it calls still have the same headers
+    private static boolean isUpToDate(CachedMethod method, Map<String, String> headers) {
+        for (Map.Entry<String, String> callee : method.calleeHeaders.entrySet()) {
+            if (!Objects.equals(callee.getValue(), headers.get(callee.getKey()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static CachedMethod parse(String text, List<String> callees, Map<String, String> headers)
+            throws ParsingErrorException {
+        Node program;
+
+        try {
+            program = new Parser(TokenStream.tokenize(text)).parse();
+        } catch (IllegalCharacterException e) {
+            throw new ParsingErrorException("Illegal character: " + e.getMessage());
+        }
+
+        Map<String, String> calleeHeaders = new HashMap<>();
+
+        for (String callee : callees) {
+            calleeHeaders.put(callee, headers.get(callee));
+        }
+
+        return new CachedMethod((MethodNode) program.getChild(0), calleeHeaders);
+    }
+
+    // names of methods called in method body: identifier followed by open bracket
+    private static List<String> callees(TokenStream tokens, MethodSpan span) {
+        List<String> result = new ArrayList<>();
+
+        for (int i = span.bodyStart; i < span.end - 1; i++) {
+            if (tokens.getType(i) == Token.Type.IDENTIFIER && tokens.getType(i + 1) == Token.Type.OPEN_BRACKET) {
+                result.add(tokens.getValue(i));
+            }
+        }
+
+        return result;
+    }
+
+    // method > type name (varList) {body}, method ends with the brace, which closes its body,
+    // tokens inside the span are checked later by parser
+    private static List<MethodSpan> split(TokenStream tokens) throws ParsingErrorException {
+        List<MethodSpan> result = new ArrayList<>();
+
+        int last = tokens.size() - 1;
+        int start = 0;
+
+        while (start < last) {
+            int bodyStart = -1;
+            int depth = 0;
+            int end = start;
+
+            while (end < last) {
+                Token.Type type = tokens.getType(end++);
+
+                if (type == Token.Type.OPEN_BRACE) {
+                    if (bodyStart < 0) {
+                        bodyStart = end - 1;
+                    }
+
+                    depth++;
+                } else if (type == Token.Type.CLOSE_BRACE && --depth == 0 && bodyStart >= 0) {
+                    break;
+                }
+            }
+
+            if (bodyStart < 0 || depth != 0 || tokens.getType(start + 1) != Token.Type.IDENTIFIER) {
+                throw new ParsingErrorException("Method expected at offset " + tokens.getOffset(start));
+            }
+
+            result.add(new MethodSpan(start, end, bodyStart));
+            start = end;
+        }
+
+        if (result.isEmpty()) {
+            throw new ParsingErrorException("Program has no methods");
+        }
+
+        return result;
+    }
+
+    // source text from the first token up to the end of token before end
+    private static String text(TokenStream tokens, CharSequence source, int start, int end) {
+        return source.subSequence(tokens.getOffset(start), tokens.getOffset(end - 1) + tokens.getLength(end - 1)).toString();
+    }
+}
@@ -0,0 +1,239 @@
+package metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// wall time, allocated bytes and item counts of compiler phases, summed over all compilations,
+// can be shared by compilations running in parallel,
+// allocations are those of thread calling start() only, so work of COMPILE on pool threads is missing
+public class CompilerMetrics implements CompilerMetricsMXBean {
+    public enum Phase {
+        READ,
+        TOKENIZE,
+        PARSE,
+        FOLD,
+        COMPILE
+    }
+
+    public enum Counter {
+        CHARS_READ,
+        TOKENS,
+        NODES,
+        FOLDED_NODES,
+        METHODS,
+        INSTRUCTIONS,
+        BYTES_WRITTEN
+    }
+
+    public static final String OBJECT_NAME = "c_to_jvm:type=CompilerMetrics";
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+
+    // metrics, which record nothing
+    public static final CompilerMetrics NONE = new CompilerMetrics(false);
+
+    private final boolean enabled;
+
+    // null, when allocated bytes of thread cannot be measured
+    private final com.sun.management.ThreadMXBean threads;
+
+    private final LongAdder[] runs = adders(PHASES.length);
+    private final LongAdder[] wallTimes = adders(PHASES.length);
+    private final LongAdder[] allocations = adders(PHASES.length);
+    private final LongAdder[] counts = adders(COUNTERS.length);
+
+    private final Measurement disabledMeasurement = new Measurement(null);
+
+    public CompilerMetrics() {
+        this(true);
+    }
+
+    private CompilerMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.threads = enabled ? allocationsBean() : null;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationsBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads;
+            }
+        }
+
+        return null;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] result = new LongAdder[count];
+
+        for (int i = 0; i < count; i++) {
+            result[i] = new LongAdder();
+        }
+
+        return result;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // phase runs on current thread until returned measurement is closed,
+    // allocations of other threads, which phase uses, are not counted
+    public Measurement start(Phase phase) {
+        return enabled ? new Measurement(phase) : disabledMeasurement;
+    }
+
+    public void add(Counter counter, long value) {
+        if (enabled) {
+            counts[counter.ordinal()].add(value);
+        }
+    }
+
+    public long getRuns(Phase phase) {
+        return runs[phase.ordinal()].sum();
+    }
+
+    public long getWallTimeNanos(Phase phase) {
+        return wallTimes[phase.ordinal()].sum();
+    }
+
+    public long getCallingThreadAllocatedBytes(Phase phase) {
+        return threads != null ? allocations[phase.ordinal()].sum() : -1;
+    }
+
+    public long getCount(Counter counter) {
+        return counts[counter.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getRuns() {
+        Map<String, Long> result = new LinkedHashMap<>();
+
+        for (Phase phase : PHASES) {
+            result.put(phase.name(), getRuns(phase));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getWallTimeNanos() {
+        Map<String, Long> result = new LinkedHashMap<>();
+
+        for (Phase phase : PHASES) {
+            result.put(phase.name(), getWallTimeNanos(phase));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCallingThreadAllocatedBytes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+
+        for (Phase phase : PHASES) {
+            result.put(phase.name(), getCallingThreadAllocatedBytes(phase));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+
+        for (Counter counter : COUNTERS) {
+            result.put(counter.name(), getCount(counter));
+        }
+
+        return result;
+    }
+
+    // one line for every phase and then one line for every counter
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+
+        report.append(String.format("%-10s %8s %14s %30s%n", "phase", "runs", "time, us",
+                "allocated by calling thread, KB"));
+
+        for (Phase phase : PHASES) {
+            long allocated = getCallingThreadAllocatedBytes(phase);
+
+            report.append(String.format("%-10s %8d %14d %30s%n", phase, getRuns(phase), getWallTimeNanos(phase) / 1000,
+                    allocated >= 0 ? Long.toString(allocated / 1024) : "-"));
+        }
+
+        for (Counter counter : COUNTERS) {
+            report.append(String.format("%-14s %d%n", counter, getCount(counter)));
+        }
+
+        return report.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder[] adders : new LongAdder[][] {runs, wallTimes, allocations, counts}) {
+            for (LongAdder adder : adders) {
+                adder.reset();
+            }
+        }
+    }
+
+    // makes metrics visible to JMX clients like jconsole under OBJECT_NAME
+    public void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+
+        server.registerMBean(this, name);
+    }
+
+    public void unregister() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+    }
+
+    public final class Measurement implements AutoCloseable {
+        // null for measurement of disabled metrics
+        private final Phase phase;
+
+        private final long startTime;
+        private final long startAllocated;
+
+        private Measurement(Phase phase) {
+            this.phase = phase;
+            this.startAllocated = phase != null && threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+            this.startTime = phase != null ? System.nanoTime() : 0;
+        }
+
+        @Override
+        public void close() {
+            if (phase == null) {
+                return;
+            }
+
+            long time = System.nanoTime() - startTime;
+
+            runs[phase.ordinal()].increment();
+            wallTimes[phase.ordinal()].add(time);
+
+            if (threads != null) {
+                allocations[phase.ordinal()].add(threads.getCurrentThreadAllocatedBytes() - startAllocated);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package metrics;
+
+import java.util.Map;
+
+// attributes of CompilerMetrics visible through JMX, maps are keyed by phase or counter name
+public interface CompilerMetricsMXBean {
+    Map<String, Long> getRuns();
+
+    Map<String, Long> getWallTimeNanos();
+
+    // allocations of thread, which ran the phase, without pool threads used by COMPILE,
+    // -1 for every phase, when JVM cannot measure allocations of thread
+    Map<String, Long> getCallingThreadAllocatedBytes();
+
+    Map<String, Long> getCounts();
+
+    String getReport();
+
+    void reset();
+}
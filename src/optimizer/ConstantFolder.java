@@ -0,0 +1,544 @@
+package optimizer;
+
+import parser.nodes.*;
+import parser.nodes.conditional.ConditionalConstructionNode;
+import parser.nodes.conditional.ConditionalBlockNode;
+import parser.nodes.loop.ForLoopNode;
+import parser.nodes.loop.LoopNode;
+import tokenizer.Token;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// folds constant subexpressions and removes arithmetic identities like x*1 or x-0,
+// folded value is exactly what compiled code would compute at run time
+// with the same int/double promotion, so folding never changes program output
+public class ConstantFolder {
+    private Map<String, ValueNode.ValueType> methodTypes = new HashMap<>();
+
+    // types of variables of current method, all variables of method share one scope
+    private Map<String, ValueNode.ValueType> variableTypes = new HashMap<>();
+
+    // element types of arrays of current method, arrays are never values themselves
+    private Map<String, ValueNode.ValueType> arrayTypes = new HashMap<>();
+
+    private int foldedCount = 0;
+
+    // tree is changed in place, returned node is the same root
+    public Node fold(Node root) {
+        List<MethodNode> methods = new ArrayList<>();
+
+        for (Node method : root.getChildren()) {
+            methods.add((MethodNode) method);
+        }
+
+        fold(root, methods);
+
+        return root;
+    }
+
+    // result types of all methods of root are known, but only given methods are folded
+    public void fold(Node root, Collection<MethodNode> methods) {
+        for (Node method : root.getChildren()) {
+            MethodNode methodNode = (MethodNode) method;
+            methodTypes.put(methodNode.getName().getValue(), methodNode.getResultType());
+        }
+
+        for (MethodNode method : methods) {
+            foldMethod(method);
+        }
+    }
+
+    // number of replaced expression nodes
+    public int getFoldedCount() {
+        return foldedCount;
+    }
+
+    private void foldMethod(MethodNode method) {
+        variableTypes.clear();
+        arrayTypes.clear();
+
+        for (Node parameter : method.getVarList().getChildren()) {
+            VariableNode variable = (VariableNode) parameter;
+            variableTypes.put(variable.getVariableName(), variable.getVariableType());
+        }
+
+        foldBody(method.getBody());
+    }
+
+    private void foldBody(BodyNode body) {
+        for (Node command : body.getChildren()) {
+            foldCommand(command);
+        }
+    }
+
+    private void foldCommand(Node command) {
+        switch (command.getNodeType()) {
+            case ASSIGNED:
+                foldChild(command.getChild(0), 0);
+                break;
+
+            case ARRAY_ASSIGNED:
+                foldChild(command, 0);
+                foldChild(((ArrayElementNode) command).getAssignOperator(), 0);
+                break;
+
+            case RETURN:
+            case PRINT:
+                foldChild(command, 0);
+                break;
+
+            case DECLARE:
+                VariableNode variable = (VariableNode) command.getChild(0);
+
+                if (variable.isArray()) {
+                    variableTypes.remove(variable.getVariableName());
+                    arrayTypes.put(variable.getVariableName(), ((TypeNode) command).getValueType());
+                } else {
+                    arrayTypes.remove(variable.getVariableName());
+                    variableTypes.put(variable.getVariableName(), ((TypeNode) command).getValueType());
+                }
+                break;
+
+            case METHOD_CALL:
+                foldArguments((MethodCallNode) command);
+                break;
+
+            case CONDITIONAL_CONSTRUCTION:
+                ConditionalConstructionNode conditionalConstruction = (ConditionalConstructionNode) command;
+
+                foldBlock(conditionalConstruction.getIfBlockNode());
+
+                for (ConditionalBlockNode elseIfBlock : conditionalConstruction.getElseIfBlockNodes()) {
+                    foldBlock(elseIfBlock);
+                }
+
+                if (conditionalConstruction.hasElseBlock()) {
+                    foldBody(conditionalConstruction.getElseBlockNode().getBody());
+                }
+                break;
+
+            case FOR_LOOP:
+                ForLoopNode forLoop = (ForLoopNode) command;
+
+                if (forLoop.getInitialization() != null) {
+                    foldCommand(forLoop.getInitialization());
+                }
+
+                foldLoop(forLoop);
+
+                if (forLoop.getUpdate() != null) {
+                    foldCommand(forLoop.getUpdate());
+                }
+                break;
+
+            case WHILE_LOOP:
+                foldLoop((LoopNode) command);
+                break;
+        }
+    }
+
+    private void foldBlock(ConditionalBlockNode block) {
+        block.setCondition(foldExpression(block.getCondition()));
+
+        foldBody(block.getBody());
+    }
+
+    private void foldLoop(LoopNode loop) {
+        loop.setCondition(foldExpression(loop.getCondition()));
+
+        foldBody(loop.getBody());
+    }
+
+    private void foldChild(Node parent, int index) {
+        Node child = parent.getChild(index);
+
+        if (child != null) {
+            parent.getChildren().set(index, foldExpression(child));
+        }
+    }
+
+    private void foldArguments(MethodCallNode methodCall) {
+        Node arguments = methodCall.getParamsList();
+
+        for (int i = 0; i < arguments.getChildren().size(); i++) {
+            foldChild(arguments, i);
+        }
+    }
+
+    private Node foldExpression(Node expression) {
+        switch (expression.getNodeType()) {
+            case EXPRESSION:
+            case TERM:
+            case FACTOR:
+                return foldOperation(expression);
+
+            case UNARY_OPERATION:
+                return foldUnaryOperation((UnaryOperationNode) expression);
+
+            case METHOD_CALL:
+                foldArguments((MethodCallNode) expression);
+                return expression;
+
+            case ARRAY_ELEMENT:
+                foldChild(expression, 0);
+                return expression;
+
+            default:
+                return expression;
+        }
+    }
+
+    private Node foldOperation(Node operation) {
+        foldChild(operation, 0);
+        foldChild(operation, 1);
+
+        Node left = operation.getChild(0);
+        Node right = operation.getChild(1);
+
+        Token.Type operator = operation.getValueToken().getType();
+
+        Node result;
+
+        if (isConstant(left) && isConstant(right)) {
+            result = evaluate(operator, (ValueNode) left, (ValueNode) right);
+        } else {
+            result = simplify(operator, left, right);
+        }
+
+        if (result == null) {
+            return operation;
+        }
+
+        foldedCount++;
+
+        return result;
+    }
+
+    private Node foldUnaryOperation(UnaryOperationNode operation) {
+        Node operand = foldExpression(operation.getOperand());
+
+        Node result = null;
+
+        if (isConstant(operand)) {
+            ValueNode value = (ValueNode) operand;
+
+            if (operation.getOperationType() == UnaryOperationNode.OperationType.NOT) {
+                result = isTrue(value) == null ? null : integerValue(isTrue(value) ? 0 : 1);
+            } else if (isInteger(value)) {
+                Integer number = integer(value);
+                result = number == null ? null : integerValue(number * -1);
+            } else {
+                Double number = real(value);
+                result = number == null ? null : doubleValue(number * -1.0);
+            }
+        } else if (operation.getOperationType() == UnaryOperationNode.OperationType.UNARY_MINUS
+                && operand.getNodeType() == NodeType.UNARY_OPERATION
+                && ((UnaryOperationNode) operand).getOperationType() == UnaryOperationNode.OperationType.UNARY_MINUS) {
+            // -(-x) is x for both int and double
+            result = ((UnaryOperationNode) operand).getOperand();
+        }
+
+        if (result != null) {
+            foldedCount++;
+            return result;
+        }
+
+        if (operand != operation.getOperand()) {
+            return new UnaryOperationNode(operand, operation.getOperationType());
+        }
+
+        return operation;
+    }
+
+    // value of operation with two constants or null, if it cannot be computed at compile time
+    private ValueNode evaluate(Token.Type operator, ValueNode left, ValueNode right) {
+        boolean integers = isInteger(left) && isInteger(right);
+
+        switch (operator) {
+            case AND:
+            case OR: {
+                Boolean first = isTrue(left);
+                Boolean second = isTrue(right);
+
+                if (first == null || second == null) {
+                    return null;
+                }
+
+                boolean value = operator == Token.Type.AND ? first && second : first || second;
+
+                return integerValue(value ? 1 : 0);
+            }
+        }
+
+        if (integers) {
+            Integer first = integer(left);
+            Integer second = integer(right);
+
+            if (first == null || second == null) {
+                return null;
+            }
+
+            switch (operator) {
+                case PLUS:
+                    return integerValue(first + second);
+                case MINUS:
+                    return integerValue(first - second);
+                case MULTIPLY:
+                    return integerValue(first * second);
+                case DIVIDE:
+                    // division by zero has to throw at run time
+                    return second == 0 ? null : integerValue(first / second);
+                case POWER:
+                    return integerValue((int) Math.pow(first, second));
+                default:
+                    return comparison(operator, Integer.compare(first, second));
+            }
+        }
+
+        Double first = real(left);
+        Double second = real(right);
+
+        if (first == null || second == null) {
+            return null;
+        }
+
+        switch (operator) {
+            case PLUS:
+                return doubleValue(first + second);
+            case MINUS:
+                return doubleValue(first - second);
+            case MULTIPLY:
+                return doubleValue(first * second);
+            case DIVIDE:
+                return doubleValue(first / second);
+            case POWER:
+                return doubleValue(Math.pow(first, second));
+            default:
+                // constants are always finite, so there is no NaN to compare, and 0.0 is equal to -0.0 like in dcmpl
+                return comparison(operator, first < second ? -1 : first > second ? 1 : 0);
+        }
+    }
+
+    private ValueNode comparison(Token.Type operator, int compared) {
+        boolean value;
+
+        switch (operator) {
+            case EQUALS:
+                value = compared == 0;
+                break;
+            case NOT_EQUALS:
+                value = compared != 0;
+                break;
+            case GREATER_THAN:
+                value = compared > 0;
+                break;
+            case GREATER_THAN_OR_EQUALS:
+                value = compared >= 0;
+                break;
+            case LESS_THAN:
+                value = compared < 0;
+                break;
+            case LESS_THAN_OR_EQUALS:
+                value = compared <= 0;
+                break;
+            default:
+                return null;
+        }
+
+        return integerValue(value ? 1 : 0);
+    }
+
+    // identities, which keep both value and type of result, or null if there is nothing to simplify
+    private Node simplify(Token.Type operator, Node left, Node right) {
+        switch (operator) {
+            case MULTIPLY:
+                if (isOne(right, left)) {
+                    return left;
+                } else if (isOne(left, right)) {
+                    return right;
+                } else if (isMinusOne(right, left)) {
+                    return negate(left);
+                } else if (isMinusOne(left, right)) {
+                    return negate(right);
+                }
+                return null;
+
+            case DIVIDE:
+                if (isOne(right, left)) {
+                    return left;
+                } else if (isMinusOne(right, left)) {
+                    return negate(left);
+                }
+                return null;
+
+            case PLUS:
+                // for double x, -0.0 + 0 is 0.0, so only int x is simplified
+                if (isIntegerZero(right) && typeOf(left) == ValueNode.ValueType.INTEGER_VALUE) {
+                    return left;
+                } else if (isIntegerZero(left) && typeOf(right) == ValueNode.ValueType.INTEGER_VALUE) {
+                    return right;
+                }
+                return null;
+
+            case MINUS:
+                if (isZero(right, left)) {
+                    return left;
+                } else if (isIntegerZero(left) && typeOf(right) == ValueNode.ValueType.INTEGER_VALUE) {
+                    return negate(right);
+                }
+                return null;
+
+            default:
+                return null;
+        }
+    }
+
+    private boolean isOne(Node constant, Node other) {
+        return isConstantEqual(constant, other, 1);
+    }
+
+    private boolean isMinusOne(Node constant, Node other) {
+        return isConstantEqual(constant, other, -1);
+    }
+
+    private boolean isZero(Node constant, Node other) {
+        return isConstantEqual(constant, other, 0);
+    }
+
+    // int constant never changes type of other operand, double one only if other operand is double too
+    private boolean isConstantEqual(Node constant, Node other, int value) {
+        if (!isConstant(constant)) {
+            return false;
+        }
+
+        ValueNode valueNode = (ValueNode) constant;
+
+        if (isInteger(valueNode)) {
+            Integer number = integer(valueNode);
+            return number != null && number == value;
+        }
+
+        Double number = real(valueNode);
+        return number != null && number == value && typeOf(other) == ValueNode.ValueType.DOUBLE_VALUE;
+    }
+
+    private boolean isIntegerZero(Node node) {
+        if (!isConstant(node) || !isInteger((ValueNode) node)) {
+            return false;
+        }
+
+        Integer number = integer((ValueNode) node);
+        return number != null && number == 0;
+    }
+
+    private Node negate(Node node) {
+        return new UnaryOperationNode(node, UnaryOperationNode.OperationType.UNARY_MINUS);
+    }
+
+    // static type of expression or null, if it is not known
+    private ValueNode.ValueType typeOf(Node node) {
+        switch (node.getNodeType()) {
+            case VALUE:
+                return ((ValueNode) node).getValueType();
+
+            case VARIABLE_GET:
+                return variableTypes.get(((VariableNode) node).getVariableName());
+
+            case ARRAY_ELEMENT:
+                return arrayTypes.get(((VariableNode) node).getVariableName());
+
+            case METHOD_CALL:
+                return methodTypes.get(((MethodCallNode) node).getName());
+
+            case UNARY_OPERATION:
+                UnaryOperationNode operation = (UnaryOperationNode) node;
+
+                if (operation.getOperationType() == UnaryOperationNode.OperationType.NOT) {
+                    return ValueNode.ValueType.INTEGER_VALUE;
+                }
+                return typeOf(operation.getOperand());
+
+            case EXPRESSION:
+            case TERM:
+            case FACTOR:
+                switch (node.getValueToken().getType()) {
+                    case PLUS:
+                    case MINUS:
+                    case MULTIPLY:
+                    case DIVIDE:
+                    case POWER:
+                        ValueNode.ValueType left = typeOf(node.getChild(0));
+                        ValueNode.ValueType right = typeOf(node.getChild(1));
+
+                        if (left == ValueNode.ValueType.DOUBLE_VALUE || right == ValueNode.ValueType.DOUBLE_VALUE) {
+                            return ValueNode.ValueType.DOUBLE_VALUE;
+                        } else if (left == ValueNode.ValueType.INTEGER_VALUE && right == ValueNode.ValueType.INTEGER_VALUE) {
+                            return ValueNode.ValueType.INTEGER_VALUE;
+                        }
+                        return null;
+
+                    default:
+                        // comparisons and logical operations
+                        return ValueNode.ValueType.INTEGER_VALUE;
+                }
+
+            default:
+                return null;
+        }
+    }
+
+    private boolean isConstant(Node node) {
+        return node != null && node.getNodeType() == NodeType.VALUE && node instanceof ValueNode;
+    }
+
+    private boolean isInteger(ValueNode value) {
+        return value.getValueType() == ValueNode.ValueType.INTEGER_VALUE;
+    }
+
+    // value of constant as it is seen by condition, null if constant is not valid number
+    private Boolean isTrue(ValueNode value) {
+        Double number = real(value);
+
+        return number == null ? null : number != 0;
+    }
+
+    private Integer integer(ValueNode value) {
+        try {
+            return Integer.parseInt(value.getValue());
+        } catch (NumberFormatException e) {
+            // too large literal is reported by compiler
+            return null;
+        }
+    }
+
+    private Double real(ValueNode value) {
+        try {
+            return Double.parseDouble(value.getValue());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private ValueNode integerValue(int value) {
+        ValueNode node = new ValueNode(new Token(Token.Type.INTEGER_VALUE, Integer.toString(value)));
+        node.setValueType(ValueNode.ValueType.INTEGER_VALUE);
+
+        return node;
+    }
+
+    // NaN and infinity cannot be written as literal, so such values are left to run time
+    private ValueNode doubleValue(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+
+        ValueNode node = new ValueNode(new Token(Token.Type.DOUBLE_VALUE, Double.toString(value)));
+        node.setValueType(ValueNode.ValueType.DOUBLE_VALUE);
+
+        return node;
+    }
+}
@@ -0,0 +1,55 @@
+package parser;
+
+import tokenizer.Token;
+
+// collects parsing statistics without any output
+public class CountingParserListener implements ParserListener {
+    private int[] productionCounts = new int[Production.values().length];
+    private long productions = 0;
+    private long tokens = 0;
+
+    private int depth = 0;
+    private int maxDepth = 0;
+
+    @Override
+    public void enterProduction(Production production, Token token) {
+        productionCounts[production.ordinal()]++;
+        productions++;
+
+        depth++;
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    @Override
+    public void exitProduction(Production production) {
+        depth--;
+    }
+
+    @Override
+    public void tokenConsumed(Token token) {
+        tokens++;
+    }
+
+    public long getProductions() {
+        return productions;
+    }
+
+    public int getProductions(Production production) {
+        return productionCounts[production.ordinal()];
+    }
+
+    public long getTokens() {
+        return tokens;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "productions: " + productions + ", tokens: " + tokens + ", max depth: " + maxDepth;
+    }
+}
@@ -5,17 +5,62 @@ import parser.nodes.conditional.ConditionalConstructionNode;
 import parser.nodes.conditional.ElseBlockNode;
 import parser.nodes.conditional.ElseIfBlockNode;
 import parser.nodes.conditional.IfBlockNode;
+import parser.nodes.loop.ForLoopNode;
+import parser.nodes.loop.WhileLoopNode;
 import tokenizer.IllegalCharacterException;
 import tokenizer.Token;
 import tokenizer.TokenizerInterface;
 
 public class Parser implements ParserInterface {
+    // binary operators precedence, 0 for tokens, which are not binary operators
+    private static final int OR_PRECEDENCE = 1;
+    private static final int AND_PRECEDENCE = 2;
+    private static final int COMPARISON_PRECEDENCE = 3;
+    private static final int ADDITION_PRECEDENCE = 4;
+    private static final int MULTIPLICATION_PRECEDENCE = 5;
+    private static final int POWER_PRECEDENCE = 6;
+
+    private static final int[] PRECEDENCE = new int[Token.Type.values().length];
+    private static final NodeType[] OPERATION_NODE_TYPES = new NodeType[Token.Type.values().length];
+
+    static {
+        operator(Token.Type.OR, OR_PRECEDENCE, NodeType.EXPRESSION);
+        operator(Token.Type.AND, AND_PRECEDENCE, NodeType.TERM);
+
+        operator(Token.Type.EQUALS, COMPARISON_PRECEDENCE, NodeType.EXPRESSION);
+        operator(Token.Type.NOT_EQUALS, COMPARISON_PRECEDENCE, NodeType.EXPRESSION);
+        operator(Token.Type.GREATER_THAN, COMPARISON_PRECEDENCE, NodeType.EXPRESSION);
+        operator(Token.Type.GREATER_THAN_OR_EQUALS, COMPARISON_PRECEDENCE, NodeType.EXPRESSION);
+        operator(Token.Type.LESS_THAN, COMPARISON_PRECEDENCE, NodeType.EXPRESSION);
+        operator(Token.Type.LESS_THAN_OR_EQUALS, COMPARISON_PRECEDENCE, NodeType.EXPRESSION);
+
+        operator(Token.Type.PLUS, ADDITION_PRECEDENCE, NodeType.EXPRESSION);
+        operator(Token.Type.MINUS, ADDITION_PRECEDENCE, NodeType.EXPRESSION);
+
+        operator(Token.Type.MULTIPLY, MULTIPLICATION_PRECEDENCE, NodeType.TERM);
+        operator(Token.Type.DIVIDE, MULTIPLICATION_PRECEDENCE, NodeType.TERM);
+
+        operator(Token.Type.POWER, POWER_PRECEDENCE, NodeType.FACTOR);
+    }
+
+    private static void operator(Token.Type type, int precedence, NodeType nodeType) {
+        PRECEDENCE[type.ordinal()] = precedence;
+        OPERATION_NODE_TYPES[type.ordinal()] = nodeType;
+    }
+
     private TokenizerInterface tokenizer;
 
     private Token currentToken;
 
+    private ParserListener listener;
+
     public Parser(TokenizerInterface tokenizer) throws ParsingErrorException {
+        this(tokenizer, ParserListener.NONE);
+    }
+
+    public Parser(TokenizerInterface tokenizer, ParserListener listener) throws ParsingErrorException {
         this.tokenizer = tokenizer;
+        this.listener = listener;
         getToken();
     }
 
@@ -25,6 +70,8 @@ public class Parser implements ParserInterface {
         } catch (IllegalCharacterException e) {
             throw new ParsingErrorException("Illegal character: " + e.getMessage());
         }
+
+        listener.tokenConsumed(currentToken);
     }
 
     public Node parse() throws ParsingErrorException {
@@ -34,45 +81,49 @@ public class Parser implements ParserInterface {
     // program > method program | method
     @Override
     public Node parseProgram() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseProgram " + currentToken);
+        listener.enterProduction(Production.PROGRAM, currentToken);
 
-        Node list = new Node(NodeType.PROGRAM);
+        try {
+            Node list = new ProgramNode(tokenizer.getSymbolTable());
 
-        list.addChild(parseMethod());
+            list.addChild(parseMethod());
 
-        while (!currentToken.hasType(Token.Type.END_OF_PROGRAM)) {
-            try {
+            while (!currentToken.hasType(Token.Type.END_OF_PROGRAM)) {
                 list.addChild(parseMethod());
-            } catch (ParsingErrorException e) {
-                return list;
             }
-        }
 
-        return list;
+            return list;
+        } finally {
+            listener.exitProduction(Production.PROGRAM);
+        }
     }
 
     // method > nodeType name (varList) {body}
     @Override
     public Node parseMethod() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseMethod " + currentToken);
+        listener.enterProduction(Production.METHOD, currentToken);
 
-        TypeNode type = (TypeNode) parseType();
+        try {
+            TypeNode type = (TypeNode) parseType();
 
-        Node name = parseName();
+            Node name = parseName();
 
-        checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
 
-        Node varList = parseVarList();
+            Node varList = parseVarList();
 
-        checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
 
-        checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
 
-        BodyNode body = parseBody();
+            BodyNode body = parseBody();
 
-        checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
 
-        return new MethodNode(type, name.getValueToken(), varList, body);
+            return new MethodNode(type, name.getValueToken(), varList, body);
+        } finally {
+            listener.exitProduction(Production.METHOD);
+        }
     }
 
     private void checkAndPassCurrentToken(Token.Type type) throws ParsingErrorException {
@@ -86,448 +137,625 @@ public class Parser implements ParserInterface {
     // type > "double" | "int" | "void"
     @Override
     public Node parseType() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseType " + currentToken);
+        listener.enterProduction(Production.TYPE, currentToken);
 
-        if (!isTypeIdentifier(currentToken)) {
-            throw new ParsingErrorException("Type (integer, double or void) expected instead of " + currentToken.toString());
-        }
+        try {
+            if (!isTypeIdentifier(currentToken)) {
+                throw new ParsingErrorException("Type (integer, double or void) expected instead of " + currentToken.toString());
+            }
 
-        Node result = new TypeNode(currentToken);
-        getToken();
+            Node result = new TypeNode(currentToken);
+            getToken();
 
-        return result;
+            return result;
+        } finally {
+            listener.exitProduction(Production.TYPE);
+        }
     }
 
     @Override
     public Node parseName() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseName " + currentToken);
+        listener.enterProduction(Production.NAME, currentToken);
 
-        if (!currentToken.hasType(Token.Type.IDENTIFIER))
-            throw new ParsingErrorException("Identifier expected instead of " + currentToken.toString());
+        try {
+            if (!currentToken.hasType(Token.Type.IDENTIFIER))
+                throw new ParsingErrorException("Identifier expected instead of " + currentToken.toString());
 
-        Node result = new Node(currentToken);
-        getToken();
+            Node result = new Node(currentToken);
+            getToken();
 
-        return result;
+            return result;
+        } finally {
+            listener.exitProduction(Production.NAME);
+        }
     }
 
     // varList > notEmptyVarList | EMPTY
     @Override
     public Node parseVarList() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseVarList " + currentToken);
-
-        Node vars;
+        listener.enterProduction(Production.VAR_LIST, currentToken);
 
         try {
-            vars = parseNotEmptyVarList();
-        } catch (ParsingErrorException e) {
-            //System.out.println( "Empty var list" );
-            return new Node(NodeType.LIST);
-        }
+            // every variable starts with its type
+            if (!isTypeIdentifier(currentToken)) {
+                return new Node(NodeType.LIST);
+            }
 
-        return vars;
+            return parseNotEmptyVarList();
+        } finally {
+            listener.exitProduction(Production.VAR_LIST);
+        }
     }
 
     // notEmptyVarList > nodeType name | nodeType name, notEmptyVarList
     @Override
     public Node parseNotEmptyVarList() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseNotEmptyVarList " + currentToken);
-        Node list = new Node(NodeType.LIST);
+        listener.enterProduction(Production.NOT_EMPTY_VAR_LIST, currentToken);
 
-        TypeNode type = (TypeNode) parseType();
-        Node name = parseName();
+        try {
+            Node list = new Node(NodeType.LIST);
 
-        VariableNode variable = new VariableNode(type.getValueType(), name.getValueToken().getValue());
+            TypeNode type = (TypeNode) parseType();
+            Node name = parseName();
 
-        list.addChild(variable);
+            VariableNode variable = new VariableNode(type.getValueType(), name.getValueToken().getValue(), name.getValueToken().getSymbol());
 
-        while (currentToken.hasType(Token.Type.COMMA)) {
-            getToken();
+            list.addChild(variable);
 
-            type = (TypeNode) parseType();
-            name = parseName();
+            while (currentToken.hasType(Token.Type.COMMA)) {
+                getToken();
 
-            variable = new VariableNode(type.getValueType(), name.getValueToken().getValue());
+                type = (TypeNode) parseType();
+                name = parseName();
 
-            list.addChild(variable);
-        }
+                variable = new VariableNode(type.getValueType(), name.getValueToken().getValue(), name.getValueToken().getSymbol());
+
+                list.addChild(variable);
+            }
 
-        return list;
+            return list;
+        } finally {
+            listener.exitProduction(Production.NOT_EMPTY_VAR_LIST);
+        }
     }
 
     // body > command; | command; body
     @Override
     public BodyNode parseBody() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseBody " + currentToken);
+        listener.enterProduction(Production.BODY, currentToken);
 
-        BodyNode body = new BodyNode();
+        try {
+            BodyNode body = new BodyNode();
 
-        body.addChild(parseCommand());
+            body.addChild(parseCommand());
 
-        while (currentToken.hasType(Token.Type.SEMICOLON)) {
-            getToken();
+            while (currentToken.hasType(Token.Type.SEMICOLON)) {
+                getToken();
+
+                // last command is also followed by semicolon
+                if (!isCommandStart(currentToken)) {
+                    return body;
+                }
 
-            try {
                 body.addChild(parseCommand());
-            } catch (ParsingErrorException e) {
-                return body;
             }
-        }
 
-        return body;
+            return body;
+        } finally {
+            listener.exitProduction(Production.BODY);
+        }
     }
 
-    // command > name = expr | RETURN expr | nodeType name | name(paramList)
+    // command > name = expr | name[expr] = expr | RETURN expr | nodeType name | nodeType name[INTEGER_VALUE] | name(paramList)
+    //           | conditionalConstruction | whileLoop | forLoop
     @Override
     public Node parseCommand() throws ParsingErrorException {
-        System.out.println("parser.Parser.parseCommand " + currentToken);
+        listener.enterProduction(Production.COMMAND, currentToken);
 
-        switch (currentToken.getType()) {
-            case IDENTIFIER: {
-                Node name = parseName();
+        try {
+            switch (currentToken.getType()) {
+                case IDENTIFIER: {
+                    Node name = parseName();
 
-                if (currentToken.hasType(Token.Type.OPEN_BRACKET)) {
-                    getToken();
+                    if (currentToken.hasType(Token.Type.OPEN_BRACKET)) {
+                        getToken();
+
+                        Node params = parseParamList();
+
+                        if (!currentToken.hasType(Token.Type.CLOSE_BRACKET)) throw new ParsingErrorException();
+
+                        MethodCallNode methodCallNode = new MethodCallNode(
+                                name.getValueToken(),
+                                params
+                        );
+
+                        getToken();
+
+                        return methodCallNode;
+                    } else if (currentToken.hasType(Token.Type.OPEN_SQUARE_BRACKET)) {
+                        ArrayElementNode element = parseArrayElement(name);
+
+                        Node assignOperator = new Node(currentToken);
+
+                        checkAndPassCurrentToken(Token.Type.ASSIGN);
+
+                        assignOperator.addChild(parseExpression());
+
+                        element.addChild(assignOperator);
+                        element.setNodeType(NodeType.ARRAY_ASSIGNED);
 
-                    Node params = parseParamList();
+                        return element;
+                    } else if (currentToken.hasType(Token.Type.ASSIGN)) {
+                        VariableNode variableNode = new VariableNode(name.getValueToken().getValue(), name.getValueToken().getSymbol());
 
-                    if (!currentToken.hasType(Token.Type.CLOSE_BRACKET)) throw new ParsingErrorException();
+                        Node assignOperator = new Node(currentToken);
 
-                    MethodCallNode methodCallNode = new MethodCallNode(
-                            name.getValueToken(),
-                            params
-                    );
+                        getToken();
+
+                        assignOperator.addChild(parseExpression());
+
+                        variableNode.addChild(assignOperator);
+                        variableNode.setNodeType(NodeType.ASSIGNED);
+
+                        return variableNode;
+                    }
+
+                    return name;
+                }
+
+                case RETURN: {
+                    Node returnOperator = new Node(currentToken);
 
                     getToken();
 
-                    return methodCallNode;
-                } else if (currentToken.hasType(Token.Type.ASSIGN)) {
-                    VariableNode variableNode = new VariableNode(name.getValueToken().getValue());
+                    returnOperator.addChild(parseExpression());
+                    returnOperator.setNodeType(NodeType.RETURN);
+
+                    return returnOperator;
+                }
 
-                    Node assignOperator = new Node(currentToken);
+                case PRINT: {
+                    Node printOperator = new Node(currentToken);
 
                     getToken();
 
-                    assignOperator.addChild(parseExpression());
+                    printOperator.addChild(parseExpression());
+                    printOperator.setNodeType(NodeType.PRINT);
 
-                    variableNode.addChild(assignOperator);
-                    variableNode.setNodeType(NodeType.ASSIGNED);
+                    return printOperator;
+                }
 
-                    return variableNode;
+                case IF: {
+                    return parseConditionalConstruction();
                 }
 
-                return name;
-            }
+                case WHILE: {
+                    return parseWhileLoop();
+                }
 
-            case RETURN: {
-                Node returnOperator = new Node(currentToken);
+                case FOR: {
+                    return parseForLoop();
+                }
 
-                getToken();
+                case INTEGER_TYPE:
+                case DOUBLE_TYPE:
+                case VOID_TYPE:
+                    TypeNode type = (TypeNode) parseType();
+
+                    Node name = parseName();
 
-                returnOperator.addChild(parseExpression());
-                returnOperator.setNodeType(NodeType.RETURN);
+                    VariableNode variable = new VariableNode(type.getValueType(), name.getValueToken().getValue(), name.getValueToken().getSymbol());
 
-                return returnOperator;
+                    if (currentToken.hasType(Token.Type.OPEN_SQUARE_BRACKET)) {
+                        variable.setArraySize(parseArraySize());
+                    }
+
+                    type.addChild(variable);
+                    type.setNodeType(NodeType.DECLARE);
+
+                    return type;
+                default:
+                    throw new ParsingErrorException("Unexpected token while parsing Command: " + currentToken);
             }
+        } finally {
+            listener.exitProduction(Production.COMMAND);
+        }
+    }
 
-            case PRINT: {
-                Node printOperator = new Node(currentToken);
+    public ConditionalConstructionNode parseConditionalConstruction() throws ParsingErrorException {
+        listener.enterProduction(Production.CONDITIONAL_CONSTRUCTION, currentToken);
 
-                getToken();
+        try {
+            ConditionalConstructionNode conditionalConstructionNode = new ConditionalConstructionNode();
 
-                printOperator.addChild(parseExpression());
-                printOperator.setNodeType(NodeType.PRINT);
+            conditionalConstructionNode.setIfBlockNode(parseIfBlock());
 
-                return printOperator;
+            while (currentToken.hasType(Token.Type.ELSEIF)) {
+                conditionalConstructionNode.addElseIfBlock(parseElseIfBlock());
             }
 
-            case IF: {
-                return parseConditionalConstruction();
+            if (currentToken.hasType(Token.Type.ELSE)) {
+                conditionalConstructionNode.setElseBlockNode(parseElseBlock());
             }
 
-            case INTEGER_TYPE:
-            case DOUBLE_TYPE:
-            case VOID_TYPE:
-                TypeNode type = (TypeNode) parseType();
+            return conditionalConstructionNode;
+        } finally {
+            listener.exitProduction(Production.CONDITIONAL_CONSTRUCTION);
+        }
+    }
+
+    public IfBlockNode parseIfBlock() throws ParsingErrorException {
+        listener.enterProduction(Production.IF_BLOCK, currentToken);
 
-                Node name = parseName();
+        try {
+            IfBlockNode ifBlockNode = new IfBlockNode();
 
-                VariableNode variable = new VariableNode(type.getValueType(), name.getValueToken().getValue());
+            getToken();
 
-                type.addChild(variable);
-                type.setNodeType(NodeType.DECLARE);
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
 
-                return type;
-            default:
-                throw new ParsingErrorException("Unexpected token while parsing Command: " + currentToken);
+            ifBlockNode.setCondition(parseExpression());
+
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
+
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+
+            ifBlockNode.setBody(parseBody());
+
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
+
+            return ifBlockNode;
+        } finally {
+            listener.exitProduction(Production.IF_BLOCK);
         }
     }
 
-    public ConditionalConstructionNode parseConditionalConstruction() throws ParsingErrorException {
-        ConditionalConstructionNode conditionalConstructionNode = new ConditionalConstructionNode();
+    public ElseIfBlockNode parseElseIfBlock() throws ParsingErrorException {
+        listener.enterProduction(Production.ELSE_IF_BLOCK, currentToken);
 
-        conditionalConstructionNode.setIfBlockNode(parseIfBlock());
+        try {
+            ElseIfBlockNode elseIfBlockNode = new ElseIfBlockNode();
 
-        while (currentToken.hasType(Token.Type.ELSEIF)) {
-            conditionalConstructionNode.addElseIfBlock(parseElseIfBlock());
-        }
+            getToken();
+
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
+
+            elseIfBlockNode.setCondition(parseExpression());
+
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
 
-        if (currentToken.hasType(Token.Type.ELSE)) {
-            conditionalConstructionNode.setElseBlockNode(parseElseBlock());
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+
+            elseIfBlockNode.setBody(parseBody());
+
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
+
+            return elseIfBlockNode;
+        } finally {
+            listener.exitProduction(Production.ELSE_IF_BLOCK);
         }
+    }
+
+    public ElseBlockNode parseElseBlock() throws ParsingErrorException {
+        listener.enterProduction(Production.ELSE_BLOCK, currentToken);
+
+        try {
+            ElseBlockNode elseBlockNode = new ElseBlockNode();
+
+            getToken();
+
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+
+            elseBlockNode.setBody(parseBody());
+
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
 
-        return conditionalConstructionNode;
+            return elseBlockNode;
+        } finally {
+            listener.exitProduction(Production.ELSE_BLOCK);
+        }
     }
 
-    public IfBlockNode parseIfBlock() throws ParsingErrorException {
-        IfBlockNode ifBlockNode = new IfBlockNode();
+    // whileLoop > while (expr) {body}
+    public WhileLoopNode parseWhileLoop() throws ParsingErrorException {
+        listener.enterProduction(Production.WHILE_LOOP, currentToken);
 
-        getToken();
+        try {
+            WhileLoopNode whileLoopNode = new WhileLoopNode();
 
-        checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
+            getToken();
+
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
 
-        ifBlockNode.setCondition(parseExpression());
+            whileLoopNode.setCondition(parseExpression());
 
-        checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
 
-        checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
 
-        ifBlockNode.setBody(parseBody());
+            whileLoopNode.setBody(parseBody());
 
-        checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
 
-        return ifBlockNode;
+            return whileLoopNode;
+        } finally {
+            listener.exitProduction(Production.WHILE_LOOP);
+        }
     }
 
-    public ElseIfBlockNode parseElseIfBlock() throws ParsingErrorException {
-        ElseIfBlockNode elseIfBlockNode = new ElseIfBlockNode();
+    // forLoop > for (loopCommand; expr; loopCommand) {body}
+    public ForLoopNode parseForLoop() throws ParsingErrorException {
+        listener.enterProduction(Production.FOR_LOOP, currentToken);
 
-        getToken();
+        try {
+            ForLoopNode forLoopNode = new ForLoopNode();
 
-        checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
+            getToken();
 
-        elseIfBlockNode.setCondition(parseExpression());
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
 
-        checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
+            if (!currentToken.hasType(Token.Type.SEMICOLON)) {
+                forLoopNode.setInitialization(parseLoopCommand());
+            }
+
+            checkAndPassCurrentToken(Token.Type.SEMICOLON);
 
-        checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+            forLoopNode.setCondition(parseExpression());
 
-        elseIfBlockNode.setBody(parseBody());
+            checkAndPassCurrentToken(Token.Type.SEMICOLON);
 
-        checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
+            if (!currentToken.hasType(Token.Type.CLOSE_BRACKET)) {
+                forLoopNode.setUpdate(parseLoopCommand());
+            }
 
-        return elseIfBlockNode;
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
+
+            checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+
+            forLoopNode.setBody(parseBody());
+
+            checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
+
+            return forLoopNode;
+        } finally {
+            listener.exitProduction(Production.FOR_LOOP);
+        }
     }
 
-    public ElseBlockNode parseElseBlock() throws ParsingErrorException {
-        ElseBlockNode elseBlockNode = new ElseBlockNode();
+    // [INTEGER_VALUE] after name of declared array
+    private int parseArraySize() throws ParsingErrorException {
+        getToken();
+
+        if (!currentToken.hasType(Token.Type.INTEGER_VALUE)) {
+            throw new ParsingErrorException("Array size must be integer number instead of " + currentToken);
+        }
+
+        int size;
+
+        try {
+            size = Integer.parseInt(currentToken.getValue());
+        } catch (NumberFormatException e) {
+            throw new ParsingErrorException("Array size is too big: " + currentToken.getValue());
+        }
 
         getToken();
+        checkAndPassCurrentToken(Token.Type.CLOSE_SQUARE_BRACKET);
 
-        checkAndPassCurrentToken(Token.Type.OPEN_BRACE);
+        return size;
+    }
+
+    // [expr] after name of array
+    private ArrayElementNode parseArrayElement(Node name) throws ParsingErrorException {
+        getToken();
 
-        elseBlockNode.setBody(parseBody());
+        ArrayElementNode element = new ArrayElementNode(name.getValueToken().getValue(), name.getValueToken().getSymbol(), parseExpression());
 
-        checkAndPassCurrentToken(Token.Type.CLOSE_BRACE);
+        checkAndPassCurrentToken(Token.Type.CLOSE_SQUARE_BRACKET);
 
-        return elseBlockNode;
+        return element;
     }
 
+    // loopCommand > name = expr | name[expr] = expr | name(paramList)
+    private Node parseLoopCommand() throws ParsingErrorException {
+        if (!currentToken.hasType(Token.Type.IDENTIFIER)) {
+            throw new ParsingErrorException("Assignment or method call expected in for loop instead of " + currentToken);
+        }
+
+        Node command = parseCommand();
+
+        if (command.getNodeType() != NodeType.ASSIGNED && command.getNodeType() != NodeType.ARRAY_ASSIGNED
+                && command.getNodeType() != NodeType.METHOD_CALL) {
+            throw new ParsingErrorException("Assignment or method call expected in for loop instead of " + command.getNodeType());
+        }
+
+        return command;
+    }
 
     //paramList > notEmptyParamList | EMPTY
     @Override
     public Node parseParamList() throws ParsingErrorException {
-        Node params;
+        listener.enterProduction(Production.PARAM_LIST, currentToken);
 
         try {
-            params = parseNotEmptyParamList();
-        } catch (ParsingErrorException e) {
-            return new Node(NodeType.LIST);
-        }
+            if (currentToken.hasType(Token.Type.CLOSE_BRACKET)) {
+                return new Node(NodeType.LIST);
+            }
 
-        return params;
+            return parseNotEmptyParamList();
+        } finally {
+            listener.exitProduction(Production.PARAM_LIST);
+        }
     }
 
     //notEmptyParamList > expr | expr, notEmptyParamList
     @Override
     public Node parseNotEmptyParamList() throws ParsingErrorException {
-        Node list = new Node(NodeType.LIST);
-        list.addChild(parseExpression());
+        listener.enterProduction(Production.NOT_EMPTY_PARAM_LIST, currentToken);
 
-        while (currentToken.hasType(Token.Type.COMMA)) {
-            getToken();
+        try {
+            Node list = new Node(NodeType.LIST);
+            list.addChild(parseExpression());
+
+            while (currentToken.hasType(Token.Type.COMMA)) {
+                getToken();
 
-            try {
                 list.addChild(parseExpression());
-            } catch (ParsingErrorException e) {
-                return list;
             }
-        }
 
-        return list;
+            return list;
+        } finally {
+            listener.exitProduction(Production.NOT_EMPTY_PARAM_LIST);
+        }
     }
 
+    // expression > operand | operand operator expression, operator precedence is taken from PRECEDENCE table
     @Override
     public Node parseExpression() throws ParsingErrorException {
-        Node root = parseTerm();
-
-        while (isExpressionOperation(currentToken)) {
-            Node left = root;
+        listener.enterProduction(Production.EXPRESSION, currentToken);
 
-            Token operation = currentToken;
-
-            getToken();
-
-            root = new Node(operation, left, parseTerm());
-            root.setNodeType(NodeType.EXPRESSION);
+        try {
+            return parseBinary(OR_PRECEDENCE);
+        } finally {
+            listener.exitProduction(Production.EXPRESSION);
         }
-
-        return root;
     }
 
     @Override
     public Node parseTerm() throws ParsingErrorException {
-        Node root = parseFactor();
+        listener.enterProduction(Production.TERM, currentToken);
 
-        while (isTermOperation(currentToken)) {
-            Node left = root;
-
-            Token operation = currentToken;
-
-            getToken();
-
-            root = new Node(operation, left, parseFactor());
-            root.setNodeType(NodeType.TERM);
+        try {
+            return parseBinary(MULTIPLICATION_PRECEDENCE);
+        } finally {
+            listener.exitProduction(Production.TERM);
         }
-
-        return root;
     }
 
     @Override
     public Node parseFactor() throws ParsingErrorException {
-        Node first = parsePower();
+        listener.enterProduction(Production.FACTOR, currentToken);
+
+        try {
+            return parseBinary(POWER_PRECEDENCE);
+        } finally {
+            listener.exitProduction(Production.FACTOR);
+        }
+    }
+
+    // precedence climbing: operators with precedence lower than minPrecedence are left for the caller,
+    // so left associative chains are built in loop, not in recursion
+    private Node parseBinary(int minPrecedence) throws ParsingErrorException {
+        Node root = parsePower();
+
+        int precedence = PRECEDENCE[currentToken.getType().ordinal()];
 
-        if (currentToken.hasType(Token.Type.POWER)) {
+        while (precedence >= minPrecedence) {
             Token operation = currentToken;
 
             getToken();
 
-            Node power = new Node(operation, first, parseFactor());
-            power.setNodeType(NodeType.FACTOR);
+            // right associative operator takes operators of the same precedence to its right operand
+            Node right = parseBinary(precedence == POWER_PRECEDENCE ? precedence : precedence + 1);
 
-            return power;
+            root = new Node(operation, root, right);
+            root.setNodeType(OPERATION_NODE_TYPES[operation.getType().ordinal()]);
+
+            precedence = PRECEDENCE[currentToken.getType().ordinal()];
         }
 
-        return first;
+        return root;
     }
 
+    // power > -power | !power | atom
     @Override
     public Node parsePower() throws ParsingErrorException {
-        if (currentToken.hasType(Token.Type.MINUS) || currentToken.hasType(Token.Type.NEGATION)) {
-            // pass minus
-            getToken();
+        listener.enterProduction(Production.POWER, currentToken);
 
-            return new UnaryOperationNode(
-                    parseAtom(),
-                    UnaryOperationNode.OperationType.UNARY_MINUS);
-        }
+        try {
+            if (currentToken.hasType(Token.Type.MINUS)) {
+                getToken();
 
-        return parseAtom();
+                return new UnaryOperationNode(parsePower(), UnaryOperationNode.OperationType.UNARY_MINUS);
+            } else if (currentToken.hasType(Token.Type.NEGATION)) {
+                getToken();
+
+                return new UnaryOperationNode(parsePower(), UnaryOperationNode.OperationType.NOT);
+            }
+
+            return parseAtom();
+        } finally {
+            listener.exitProduction(Production.POWER);
+        }
     }
 
+    // atom > name | name[expression] | name(paramList) | value | (expression)
     @Override
     public Node parseAtom() throws ParsingErrorException {
-        switch (currentToken.getType()) {
-            case IDENTIFIER:
-                Node identifier = new Node(currentToken);
+        listener.enterProduction(Production.ATOM, currentToken);
 
-                getToken();
+        try {
+            switch (currentToken.getType()) {
+                case IDENTIFIER:
+                    Node identifier = new Node(currentToken);
 
-                if (currentToken.hasType(Token.Type.OPEN_BRACKET)) {
                     getToken();
 
-                    Node paramList = parseParamList();
+                    if (currentToken.hasType(Token.Type.OPEN_BRACKET)) {
+                        getToken();
 
-                    MethodCallNode methodCallNode = new MethodCallNode(identifier.getValueToken(), paramList);
+                        Node paramList = parseParamList();
 
-                    System.err.println(methodCallNode.toTreeString(0));
+                        MethodCallNode methodCallNode = new MethodCallNode(identifier.getValueToken(), paramList);
 
-                    checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
-
-                    return methodCallNode;
-                } else {
-                    VariableNode variableNode = new VariableNode(identifier.getValueToken().getValue());
-                    variableNode.setNodeType(NodeType.VARIABLE_GET);
-                    return variableNode;
-                }
-
-            case INTEGER_VALUE: {
-                ValueNode valueNode = new ValueNode(currentToken);
-                valueNode.setValueType(ValueNode.ValueType.INTEGER_VALUE);
-                getToken();
-                return valueNode;
-            }
-
-            case DOUBLE_VALUE: {
-                ValueNode valueNode = new ValueNode(currentToken);
-                valueNode.setValueType(ValueNode.ValueType.DOUBLE_VALUE);
-                getToken();
-                return valueNode;
-            }
-
-            case MINUS:
-                return parseExpression();
-
-            case OPEN_BRACKET:
-                getToken();
-
-                Node expression = parseExpression();
+                        checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
 
-                checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
+                        return methodCallNode;
+                    } else if (currentToken.hasType(Token.Type.OPEN_SQUARE_BRACKET)) {
+                        return parseArrayElement(identifier);
+                    } else {
+                        VariableNode variableNode = new VariableNode(identifier.getValueToken().getValue(), identifier.getValueToken().getSymbol());
+                        variableNode.setNodeType(NodeType.VARIABLE_GET);
+                        return variableNode;
+                    }
 
-                if ( isTokenComparisonOperator(currentToken) ) {
-                    Token operation = currentToken;
-
-                    System.out.println(operation);
+                case INTEGER_VALUE: {
+                    ValueNode valueNode = new ValueNode(currentToken);
+                    valueNode.setValueType(ValueNode.ValueType.INTEGER_VALUE);
+                    getToken();
+                    return valueNode;
+                }
 
+                case DOUBLE_VALUE: {
+                    ValueNode valueNode = new ValueNode(currentToken);
+                    valueNode.setValueType(ValueNode.ValueType.DOUBLE_VALUE);
                     getToken();
+                    return valueNode;
+                }
 
-                    checkAndPassCurrentToken(Token.Type.OPEN_BRACKET);
+                case OPEN_BRACKET:
+                    getToken();
 
-                    Node right = parseExpression();
+                    Node expression = parseExpression();
 
                     checkAndPassCurrentToken(Token.Type.CLOSE_BRACKET);
 
-                    Node result = new Node(operation, expression, right);
-                    result.setNodeType(NodeType.EXPRESSION);
-
-                    return result;
-                }
+                    return expression;
+            }
 
-                return expression;
+            throw new ParsingErrorException("Cannot parse atom: unexpected token " + currentToken);
+        } finally {
+            listener.exitProduction(Production.ATOM);
         }
-
-        throw new ParsingErrorException("Cannot parse atom: unexpected token " + currentToken);
-    }
-
-    private boolean isTokenComparisonOperator(Token token) {
-        return token.hasType(Token.Type.EQUALS)
-                || token.hasType(Token.Type.GREATER_THAN)
-                || token.hasType(Token.Type.GREATER_THAN_OR_EQUALS)
-                || token.hasType(Token.Type.LESS_THAN)
-                || token.hasType(Token.Type.LESS_THAN_OR_EQUALS);
-    }
-
-    private boolean isTermOperation(Token token) {
-        return token.hasType(Token.Type.MULTIPLY)
-                || token.hasType(Token.Type.DIVIDE)
-                || token.hasType(Token.Type.AND);
     }
 
-    private boolean isExpressionOperation(Token token) {
-        return token.hasType(Token.Type.PLUS)
-                || token.hasType(Token.Type.MINUS)
-                || token.hasType(Token.Type.OR);
+    private boolean isCommandStart(Token token) {
+        return token.hasType(Token.Type.IDENTIFIER)
+                || token.hasType(Token.Type.RETURN)
+                || token.hasType(Token.Type.PRINT)
+                || token.hasType(Token.Type.IF)
+                || token.hasType(Token.Type.WHILE)
+                || token.hasType(Token.Type.FOR)
+                || isTypeIdentifier(token);
     }
 
     private boolean isTypeIdentifier(Token token) {
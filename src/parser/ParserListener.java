@@ -0,0 +1,19 @@
+package parser;
+
+import tokenizer.Token;
+
+// receives parsing progress from Parser, all methods do nothing by default
+public interface ParserListener {
+    public static final ParserListener NONE = new ParserListener() {};
+
+    // called before production is parsed, token is the first token of it
+    public default void enterProduction(Production production, Token token) {
+    }
+
+    // called when production is left, also when parsing of it failed
+    public default void exitProduction(Production production) {
+    }
+
+    public default void tokenConsumed(Token token) {
+    }
+}
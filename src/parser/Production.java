@@ -0,0 +1,26 @@
+package parser;
+
+// grammar rules reported to ParserListener
+public enum Production {
+    PROGRAM,
+    METHOD,
+    TYPE,
+    NAME,
+    VAR_LIST,
+    NOT_EMPTY_VAR_LIST,
+    BODY,
+    COMMAND,
+    CONDITIONAL_CONSTRUCTION,
+    IF_BLOCK,
+    ELSE_IF_BLOCK,
+    ELSE_BLOCK,
+    WHILE_LOOP,
+    FOR_LOOP,
+    PARAM_LIST,
+    NOT_EMPTY_PARAM_LIST,
+    EXPRESSION,
+    TERM,
+    FACTOR,
+    POWER,
+    ATOM
+}
@@ -0,0 +1,41 @@
+package parser;
+
+import tokenizer.Token;
+
+import java.io.PrintStream;
+
+// prints every entered production with its first token, indented by nesting depth
+public class TracingParserListener implements ParserListener {
+    private static final String INDENT = "  ";
+
+    private PrintStream out;
+    private int depth = 0;
+
+    public TracingParserListener() {
+        this(System.out);
+    }
+
+    public TracingParserListener(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void enterProduction(Production production, Token token) {
+        StringBuilder line = new StringBuilder();
+
+        for (int i = 0; i < depth; i++) {
+            line.append(INDENT);
+        }
+
+        line.append(production).append(' ').append(token);
+
+        out.println(line);
+
+        depth++;
+    }
+
+    @Override
+    public void exitProduction(Production production) {
+        depth--;
+    }
+}
@@ -0,0 +1,37 @@
+package parser.nodes;
+
+// element of array variable, first child is index expression,
+// assigned element has assign operator with value expression as second child
+public class ArrayElementNode extends VariableNode {
+    public ArrayElementNode(String variableName, int symbol, Node index) {
+        super(variableName, symbol);
+
+        nodeType = NodeType.ARRAY_ELEMENT;
+        addChild(index);
+    }
+
+    public Node getIndex() {
+        return getChild(0);
+    }
+
+    // assign operator of ARRAY_ASSIGNED node
+    public Node getAssignOperator() {
+        return getChild(1);
+    }
+
+    @Override
+    public String toTreeString(int depth) {
+        StringBuilder result = new StringBuilder();
+
+        result.append(indent(depth))
+                .append(getVariableName()).append("[\n")
+                .append(getIndex().toTreeString(depth+1))
+                .append(indent(depth)).append("]\n");
+
+        if (getAssignOperator() != null) {
+            result.append(getAssignOperator().toTreeString(depth+1));
+        }
+
+        return result.toString();
+    }
+}
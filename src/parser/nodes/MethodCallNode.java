@@ -19,6 +19,10 @@ public final class MethodCallNode extends Node {
         return valueToken.getValue();
     }
 
+    public int getSymbol() {
+        return valueToken.getSymbol();
+    }
+
     public Node getParamsList() {
         return params;
     }
@@ -27,6 +31,12 @@ public final class MethodCallNode extends Node {
         params = paramsList;
     }
 
+    // arguments of call are not its children
+    @Override
+    public long countNodes() {
+        return super.countNodes() + params.countNodes();
+    }
+
     @Override
     public String toTreeString(int depth) {
         StringBuilder result = new StringBuilder();
@@ -28,6 +28,10 @@ public class MethodNode extends Node {
         return name;
     }
 
+    public int getSymbol() {
+        return name.getSymbol();
+    }
+
     public Node getVarList() {
         return varList;
     }
@@ -97,6 +97,19 @@ public class Node {
         return result.toString();
     }
 
+    // this node and all nodes under it
+    public long countNodes() {
+        long count = 1;
+
+        for (Node child : children) {
+            if (child != null) {
+                count += child.countNodes();
+            }
+        }
+
+        return count;
+    }
+
     protected String indent(int length) {
         StringBuilder result = new StringBuilder();
 
@@ -19,10 +19,15 @@ public enum NodeType {
     EXPRESSION,
     ATOM,
     VARIABLE_GET,
+    ARRAY_ELEMENT,
+    ARRAY_ASSIGNED,
     UNARY_OPERATION,
 
     CONDITIONAL_CONSTRUCTION,
     IF_BLOCK,
     ELSE_IF_BLOCK,
     ELSE_BLOCK,
+
+    WHILE_LOOP,
+    FOR_LOOP,
 }
@@ -0,0 +1,18 @@
+package parser.nodes;
+
+import tokenizer.SymbolTable;
+
+public class ProgramNode extends Node {
+    // table, which ids of all identifiers in this program belong to
+    private SymbolTable symbolTable;
+
+    public ProgramNode(SymbolTable symbolTable) {
+        super(NodeType.PROGRAM);
+
+        this.symbolTable = symbolTable;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+}
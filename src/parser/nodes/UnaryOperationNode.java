@@ -2,7 +2,8 @@ package parser.nodes;
 
 public class UnaryOperationNode extends Node {
     public enum OperationType {
-        UNARY_MINUS
+        UNARY_MINUS,
+        NOT
     }
 
     private Node operand;
@@ -4,15 +4,32 @@ public class VariableNode extends Node {
     private ValueNode.ValueType variableType;
     private String variableName;
 
+    // id of name in SymbolTable, -1 if it is unknown
+    private int symbol = -1;
+
+    // number of elements of declared array, -1 for variable, which is not array
+    private int arraySize = -1;
+
     public VariableNode(ValueNode.ValueType variableType, String variableName) {
         this.variableType = variableType;
         this.variableName = variableName;
     }
 
+    public VariableNode(ValueNode.ValueType variableType, String variableName, int symbol) {
+        this.variableType = variableType;
+        this.variableName = variableName;
+        this.symbol = symbol;
+    }
+
     public VariableNode(String variableName) {
         this.variableName = variableName;
     }
 
+    public VariableNode(String variableName, int symbol) {
+        this.variableName = variableName;
+        this.symbol = symbol;
+    }
+
     public ValueNode.ValueType getVariableType() {
         return variableType;
     }
@@ -29,6 +46,26 @@ public class VariableNode extends Node {
         this.variableName = variableName;
     }
 
+    public int getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(int symbol) {
+        this.symbol = symbol;
+    }
+
+    public int getArraySize() {
+        return arraySize;
+    }
+
+    public void setArraySize(int arraySize) {
+        this.arraySize = arraySize;
+    }
+
+    public boolean isArray() {
+        return arraySize >= 0;
+    }
+
     @Override
     public String toString() {
         return "VariableNode{" +
@@ -46,6 +83,9 @@ public class VariableNode extends Node {
         if (variableType != null) {
             result.append(" : ").append(variableType);
         }
+        if (isArray()) {
+            result.append('[').append(arraySize).append(']');
+        }
         result.append('\n');
 
         if (!children.isEmpty()) {
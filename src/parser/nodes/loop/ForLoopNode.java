@@ -0,0 +1,51 @@
+package parser.nodes.loop;
+
+import parser.nodes.Node;
+import parser.nodes.NodeType;
+
+public class ForLoopNode extends LoopNode {
+    // assignment or method call, null when it is omitted
+    private Node initialization;
+    private Node update;
+
+    public ForLoopNode() {
+        nodeType = NodeType.FOR_LOOP;
+    }
+
+    public Node getInitialization() {
+        return initialization;
+    }
+
+    public Node getUpdate() {
+        return update;
+    }
+
+    public void setInitialization(Node initialization) {
+        this.initialization = initialization;
+    }
+
+    public void setUpdate(Node update) {
+        this.update = update;
+    }
+
+    @Override
+    public String toTreeString(int depth) {
+        StringBuilder result = new StringBuilder();
+
+        result.append(indent(depth)).append(nodeType).append('\n');
+
+        if (initialization != null) {
+            result.append(initialization.toTreeString(depth + 1));
+        }
+
+        result.append(getCondition().toTreeString(depth + 1));
+
+        if (update != null) {
+            result.append(update.toTreeString(depth + 1));
+        }
+
+        result.append(getBody().toTreeString(depth + 1));
+
+        return result.toString();
+    }
+}
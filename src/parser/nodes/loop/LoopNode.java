@@ -0,0 +1,41 @@
+package parser.nodes.loop;
+
+import parser.nodes.BodyNode;
+import parser.nodes.Node;
+
+// body is repeated while condition is true, condition is checked before every iteration
+public abstract class LoopNode extends Node {
+    private Node condition;
+    private BodyNode body;
+
+    protected LoopNode() {
+    }
+
+    public Node getCondition() {
+        return condition;
+    }
+
+    public BodyNode getBody() {
+        return body;
+    }
+
+    public void setCondition(Node condition) {
+        this.condition = condition;
+    }
+
+    public void setBody(BodyNode body) {
+        this.body = body;
+    }
+
+    @Override
+    public String toTreeString(int depth) {
+        StringBuilder result = new StringBuilder();
+
+        result.append(indent(depth))
+                .append(nodeType).append('\n')
+                .append(condition.toTreeString(depth + 1))
+                .append(body.toTreeString(depth + 1));
+
+        return result.toString();
+    }
+}
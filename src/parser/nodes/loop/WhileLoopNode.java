@@ -0,0 +1,9 @@
+package parser.nodes.loop;
+
+import parser.nodes.NodeType;
+
+public class WhileLoopNode extends LoopNode {
+    public WhileLoopNode() {
+        nodeType = NodeType.WHILE_LOOP;
+    }
+}
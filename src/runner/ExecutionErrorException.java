@@ -0,0 +1,7 @@
+package runner;
+
+public class ExecutionErrorException extends Exception {
+    public ExecutionErrorException( String message, Throwable cause ) {
+        super( "Execution error: " + message, cause );
+    }
+}
@@ -0,0 +1,18 @@
+package runner;
+
+// defines compiled classes in current JVM,
+// new loader is used for every program, so same class name can be defined many times
+// and classes are unloaded together with their loader
+public class GeneratedClassLoader extends ClassLoader {
+    public GeneratedClassLoader() {
+        super(GeneratedClassLoader.class.getClassLoader());
+    }
+
+    public GeneratedClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    public Class<?> define(String className, byte[] classBytes) {
+        return defineClass(className, classBytes, 0, classBytes.length);
+    }
+}
@@ -0,0 +1,47 @@
+package runner;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+// runs compiled program inside compiler's JVM, without writing class file to disk
+public class ProgramRunner {
+    public static void run(String className, byte[] classBytes, String[] args) throws ExecutionErrorException {
+        Class<?> programClass;
+
+        try {
+            programClass = new GeneratedClassLoader().define(className, classBytes);
+        } catch (LinkageError e) {
+            throw new ExecutionErrorException("cannot define class " + className, e);
+        }
+
+        Method main;
+
+        try {
+            main = programClass.getMethod("main", String[].class);
+        } catch (NoSuchMethodException e) {
+            throw new ExecutionErrorException("method main was not found in " + className, e);
+        } catch (LinkageError e) {
+            // class is verified when it is linked, so invalid generated code fails here
+            throw linkageFailure(className, e);
+        }
+
+        if (!Modifier.isStatic(main.getModifiers())) {
+            throw new ExecutionErrorException("method main of " + className + " is not static", null);
+        }
+
+        try {
+            main.invoke(null, (Object) args);
+        } catch (InvocationTargetException e) {
+            throw new ExecutionErrorException("program " + className + " failed", e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new ExecutionErrorException("cannot run " + className, e);
+        } catch (LinkageError e) {
+            throw linkageFailure(className, e);
+        }
+    }
+
+    private static ExecutionErrorException linkageFailure(String className, LinkageError e) {
+        return new ExecutionErrorException("class " + className + " failed verification or definition: " + e, e);
+    }
+}
@@ -0,0 +1,166 @@
+package tokenizer;
+
+// interns identifiers: every distinct name gets dense integer id once, at tokenization time,
+// so later stages can resolve variables and methods by array index instead of string hashing.
+// Table is not thread safe, it is filled by single tokenizer and only read after parsing
+public class SymbolTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // open addressing table of (id + 1), 0 means empty slot
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+
+    public int intern(char[] chars, int offset, int length) {
+        int hash = hash(chars, offset, length);
+        int mask = slots.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+
+            if (id < 0) {
+                return add(new String(chars, offset, length), hash, slot);
+            }
+
+            if (hashes[id] == hash && matches(names[id], chars, offset, length)) {
+                return id;
+            }
+        }
+    }
+
+    public int intern(CharSequence name) {
+        int hash = hash(name);
+        int mask = slots.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+
+            if (id < 0) {
+                return add(name.toString(), hash, slot);
+            }
+
+            if (hashes[id] == hash && matches(names[id], name)) {
+                return id;
+            }
+        }
+    }
+
+    // id of name or -1, if name was never interned
+    public int find(CharSequence name) {
+        int hash = hash(name);
+        int mask = slots.length - 1;
+
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+
+            if (id < 0) {
+                return -1;
+            }
+
+            if (hashes[id] == hash && matches(names[id], name)) {
+                return id;
+            }
+        }
+    }
+
+    public String getName(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int add(String name, int hash, int slot) {
+        if (size == names.length) {
+            String[] newNames = new String[size * 2];
+            int[] newHashes = new int[size * 2];
+
+            System.arraycopy(names, 0, newNames, 0, size);
+            System.arraycopy(hashes, 0, newHashes, 0, size);
+
+            names = newNames;
+            hashes = newHashes;
+        }
+
+        int id = size++;
+
+        names[id] = name;
+        hashes[id] = hash;
+        slots[slot] = id + 1;
+
+        // keep load factor under 1/2
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+
+        int mask = slots.length - 1;
+
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = id + 1;
+        }
+    }
+
+    // same as String.hashCode(), spread to use low bits of table index
+    private static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars[offset + i];
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(CharSequence name) {
+        int hash = 0;
+
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + name.charAt(i);
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String name, char[] chars, int offset, int length) {
+        if (name.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean matches(String name, CharSequence other) {
+        if (name.length() != other.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
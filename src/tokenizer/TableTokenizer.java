@@ -0,0 +1,384 @@
+package tokenizer;
+
+import buffer.BufferInterface;
+
+// tokenizer driven by character class and transition tables,
+// accepts the same language as Tokenizer, but without boxing and map lookups per character
+public class TableTokenizer implements TokenizerInterface {
+    // character classes
+    static final byte OTHER = 0;
+    static final byte END = 1;
+    static final byte WHITESPACE = 2;
+    static final byte LETTER = 3;
+    static final byte DIGIT = 4;
+    static final byte DOT = 5;
+    static final byte SYMBOL = 6;
+    static final byte SLASH = 7;
+    static final byte EQUALS_SIGN = 8;
+    static final byte LESS = 9;
+    static final byte GREATER = 10;
+    static final byte AMPERSAND = 11;
+    static final byte PIPE = 12;
+    static final byte EXCLAMATION = 13;
+
+    static final int CLASSES_COUNT = 14;
+
+    // states, non negative values in transition table mean "consume character and go to state"
+    static final byte READY = 0;
+    static final byte INTEGER = 1;
+    static final byte DOUBLE = 2;
+    static final byte WORD = 3;
+
+    private static final int STATES_COUNT = 4;
+
+    // actions, negative values in transition table, current character is not consumed
+    static final byte EMIT_INTEGER = -1;
+    static final byte EMIT_DOUBLE = -2;
+    static final byte EMIT_WORD = -3;
+    static final byte OPERATOR = -4;
+    static final byte ERROR = -5;
+
+    static final byte[] CHARACTER_CLASSES = new byte[128];
+    static final byte[] TRANSITIONS = new byte[STATES_COUNT * CLASSES_COUNT];
+
+    // tokens without value are immutable, so they are shared
+    static final Token[] READY_TOKENS = new Token[Token.Type.values().length];
+    static final Token[] SYMBOL_TOKENS = new Token[128];
+
+    static {
+        for (Token.Type type : Token.Type.values()) {
+            READY_TOKENS[type.ordinal()] = new Token(type);
+        }
+
+        for (char c = 0; c < 128; c++) {
+            if (Character.isLetter(c)) {
+                CHARACTER_CLASSES[c] = LETTER;
+            } else if (Character.isDigit(c)) {
+                CHARACTER_CLASSES[c] = DIGIT;
+            } else if (Character.isWhitespace(c)) {
+                CHARACTER_CLASSES[c] = WHITESPACE;
+            }
+        }
+
+        CHARACTER_CLASSES['\u0000'] = END;
+        CHARACTER_CLASSES['.'] = DOT;
+        CHARACTER_CLASSES['/'] = SLASH;
+        CHARACTER_CLASSES['='] = EQUALS_SIGN;
+        CHARACTER_CLASSES['<'] = LESS;
+        CHARACTER_CLASSES['>'] = GREATER;
+        CHARACTER_CLASSES['&'] = AMPERSAND;
+        CHARACTER_CLASSES['|'] = PIPE;
+        CHARACTER_CLASSES['!'] = EXCLAMATION;
+
+        symbol('+', Token.Type.PLUS);
+        symbol('-', Token.Type.MINUS);
+        symbol('*', Token.Type.MULTIPLY);
+        symbol('^', Token.Type.POWER);
+
+        symbol('(', Token.Type.OPEN_BRACKET);
+        symbol(')', Token.Type.CLOSE_BRACKET);
+
+        symbol('[', Token.Type.OPEN_SQUARE_BRACKET);
+        symbol(']', Token.Type.CLOSE_SQUARE_BRACKET);
+
+        symbol('{', Token.Type.OPEN_BRACE);
+        symbol('}', Token.Type.CLOSE_BRACE);
+
+        symbol(',', Token.Type.COMMA);
+        symbol(';', Token.Type.SEMICOLON);
+
+        // READY: skip whitespaces, start numbers and words, everything else is operator
+        for (int charClass = 0; charClass < CLASSES_COUNT; charClass++) {
+            TRANSITIONS[READY * CLASSES_COUNT + charClass] = OPERATOR;
+            TRANSITIONS[INTEGER * CLASSES_COUNT + charClass] = EMIT_INTEGER;
+            TRANSITIONS[DOUBLE * CLASSES_COUNT + charClass] = EMIT_DOUBLE;
+            TRANSITIONS[WORD * CLASSES_COUNT + charClass] = EMIT_WORD;
+        }
+
+        TRANSITIONS[READY * CLASSES_COUNT + OTHER] = ERROR;
+        TRANSITIONS[READY * CLASSES_COUNT + DOT] = ERROR;
+        TRANSITIONS[READY * CLASSES_COUNT + WHITESPACE] = READY;
+        TRANSITIONS[READY * CLASSES_COUNT + LETTER] = WORD;
+        TRANSITIONS[READY * CLASSES_COUNT + DIGIT] = INTEGER;
+
+        TRANSITIONS[INTEGER * CLASSES_COUNT + DIGIT] = INTEGER;
+        TRANSITIONS[INTEGER * CLASSES_COUNT + DOT] = DOUBLE;
+
+        TRANSITIONS[DOUBLE * CLASSES_COUNT + DIGIT] = DOUBLE;
+
+        TRANSITIONS[WORD * CLASSES_COUNT + LETTER] = WORD;
+    }
+
+    private static void symbol(char c, Token.Type type) {
+        CHARACTER_CLASSES[c] = SYMBOL;
+        SYMBOL_TOKENS[c] = READY_TOKENS[type.ordinal()];
+    }
+
+    // keywords are found with perfect hash: every keyword has its own slot in table
+    private static final String[] KEYWORDS = {
+            "if", "else", "elseif", "while", "for", "return", "print", "int", "double", "void"
+    };
+
+    private static final Token.Type[] KEYWORD_TYPES = {
+            Token.Type.IF, Token.Type.ELSE, Token.Type.ELSEIF, Token.Type.WHILE, Token.Type.FOR, Token.Type.RETURN,
+            Token.Type.PRINT, Token.Type.INTEGER_TYPE, Token.Type.DOUBLE_TYPE, Token.Type.VOID_TYPE
+    };
+
+    // table size is power of two, slot is taken from the highest bits of hash
+    private static final int KEYWORD_TABLE_BITS = 5;
+    private static final int KEYWORD_TABLE_SIZE = 1 << KEYWORD_TABLE_BITS;
+
+    private static final char[][] KEYWORD_TABLE = new char[KEYWORD_TABLE_SIZE][];
+    private static final Token[] KEYWORD_TOKENS = new Token[KEYWORD_TABLE_SIZE];
+
+    private static int keywordMultiplier;
+
+    static {
+        // find multiplier, for which there is no collisions between keywords
+        for (keywordMultiplier = 1; !isPerfectHash(); keywordMultiplier += 2) {
+            if (keywordMultiplier < 0) {
+                throw new IllegalStateException("Cannot build perfect hash for keywords");
+            }
+        }
+
+        for (int i = 0; i < KEYWORDS.length; i++) {
+            int slot = keywordHash(KEYWORDS[i].toCharArray(), 0, KEYWORDS[i].length());
+
+            KEYWORD_TABLE[slot] = KEYWORDS[i].toCharArray();
+            KEYWORD_TOKENS[slot] = READY_TOKENS[KEYWORD_TYPES[i].ordinal()];
+        }
+    }
+
+    private static boolean isPerfectHash() {
+        boolean[] used = new boolean[KEYWORD_TABLE_SIZE];
+
+        for (String keyword : KEYWORDS) {
+            int slot = keywordHash(keyword.toCharArray(), 0, keyword.length());
+
+            if (used[slot]) {
+                return false;
+            }
+
+            used[slot] = true;
+        }
+
+        return true;
+    }
+
+    private static int keywordHash(char[] word, int offset, int length) {
+        int hash = (word[offset] * 31 + word[offset + length - 1]) * 31 + length;
+
+        return (hash * keywordMultiplier) >>> (32 - KEYWORD_TABLE_BITS);
+    }
+
+    // keyword token for given word or null, if word is not a keyword
+    static Token keyword(char[] word, int offset, int length) {
+        int slot = keywordHash(word, offset, length);
+        char[] keyword = KEYWORD_TABLE[slot];
+
+        if (keyword == null || keyword.length != length) {
+            return null;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (keyword[i] != word[offset + i]) {
+                return null;
+            }
+        }
+
+        return KEYWORD_TOKENS[slot];
+    }
+
+    private BufferInterface buffer;
+
+    private char[] value = new char[64];
+    private int length = 0;
+
+    private SymbolTable symbolTable;
+
+    public TableTokenizer(BufferInterface buffer) {
+        this(buffer, new SymbolTable());
+    }
+
+    public TableTokenizer(BufferInterface buffer, SymbolTable symbolTable) {
+        this.buffer = buffer;
+        this.symbolTable = symbolTable;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    @Override
+    public Token getToken() throws IllegalCharacterException {
+        int state = READY;
+
+        length = 0;
+
+        while (true) {
+            char current = buffer.peekChar();
+            int action = TRANSITIONS[state * CLASSES_COUNT + characterClass(current)];
+
+            if (action >= 0) {
+                buffer.getChar();
+
+                if (action != READY) {
+                    append(current);
+                }
+
+                state = action;
+                continue;
+            }
+
+            switch (action) {
+                case EMIT_INTEGER:
+                    return new Token(Token.Type.INTEGER_VALUE, new String(value, 0, length));
+
+                case EMIT_DOUBLE:
+                    return new Token(Token.Type.DOUBLE_VALUE, new String(value, 0, length));
+
+                case EMIT_WORD:
+                    return word();
+
+                case OPERATOR: {
+                    Token token = operator(buffer.getChar());
+
+                    // null is returned for comments
+                    if (token != null) {
+                        return token;
+                    }
+                    break;
+                }
+
+                default:
+                    throw new IllegalCharacterException(buffer.getChar());
+            }
+        }
+    }
+
+    static int characterClass(char c) {
+        if (c < 128) {
+            return CHARACTER_CLASSES[c];
+        }
+
+        // fallback for characters outside of ASCII
+        if (Character.isLetter(c)) {
+            return LETTER;
+        } else if (Character.isDigit(c)) {
+            return DIGIT;
+        } else if (Character.isWhitespace(c)) {
+            return WHITESPACE;
+        }
+
+        return OTHER;
+    }
+
+    private Token operator(char current) throws IllegalCharacterException {
+        char nextChar = buffer.peekChar();
+
+        switch (CHARACTER_CLASSES[current]) {
+            case SYMBOL:
+                return SYMBOL_TOKENS[current];
+
+            case END:
+                return READY_TOKENS[Token.Type.END_OF_PROGRAM.ordinal()];
+
+            case SLASH:
+                if (nextChar == '/') {
+                    buffer.getChar();
+                    skipOneLineComment();
+                    return null;
+                } else if (nextChar == '*') {
+                    buffer.getChar();
+                    skipMultiLineComment();
+                    return null;
+                }
+                return READY_TOKENS[Token.Type.DIVIDE.ordinal()];
+
+            case EQUALS_SIGN:
+                return withOptionalEquals(Token.Type.ASSIGN, Token.Type.EQUALS);
+
+            case EXCLAMATION:
+                return withOptionalEquals(Token.Type.NEGATION, Token.Type.NOT_EQUALS);
+
+            case LESS:
+                return withOptionalEquals(Token.Type.LESS_THAN, Token.Type.LESS_THAN_OR_EQUALS);
+
+            case GREATER:
+                return withOptionalEquals(Token.Type.GREATER_THAN, Token.Type.GREATER_THAN_OR_EQUALS);
+
+            case AMPERSAND:
+                if (nextChar == '&') {
+                    buffer.getChar();
+                    return READY_TOKENS[Token.Type.AND.ordinal()];
+                }
+                throw new IllegalCharacterException(current);
+
+            case PIPE:
+                if (nextChar == '|') {
+                    buffer.getChar();
+                    return READY_TOKENS[Token.Type.OR.ordinal()];
+                }
+                throw new IllegalCharacterException(current);
+
+            default:
+                throw new IllegalCharacterException(current);
+        }
+    }
+
+    private Token withOptionalEquals(Token.Type single, Token.Type withEquals) {
+        if (buffer.peekChar() == '=') {
+            buffer.getChar();
+            return READY_TOKENS[withEquals.ordinal()];
+        }
+
+        return READY_TOKENS[single.ordinal()];
+    }
+
+    private Token word() {
+        Token keyword = keyword(value, 0, length);
+
+        if (keyword != null) {
+            return keyword;
+        }
+
+        // same identifier always gets the same String instance from symbol table
+        int symbol = symbolTable.intern(value, 0, length);
+
+        return new Token(Token.Type.IDENTIFIER, symbolTable.getName(symbol), symbol);
+    }
+
+    private void append(char c) {
+        if (length == value.length) {
+            char[] extended = new char[value.length * 2];
+            System.arraycopy(value, 0, extended, 0, length);
+            value = extended;
+        }
+
+        value[length++] = c;
+    }
+
+    private void skipOneLineComment() {
+        while (true) {
+            char current = buffer.getChar();
+
+            if (current == '\n' || current == '\u0000') break;
+        }
+    }
+
+    private void skipMultiLineComment() {
+        while (true) {
+            char current = buffer.getChar();
+
+            if (current == '\u0000') {
+                return;
+            }
+
+            if ((current == '*') && (buffer.peekChar() == '/')) {
+                buffer.getChar();
+                return;
+            }
+        }
+    }
+}
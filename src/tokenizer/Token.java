@@ -13,6 +13,7 @@ public class Token {
         LESS_THAN,
         LESS_THAN_OR_EQUALS,
         EQUALS,
+        NOT_EQUALS,
 
         NEGATION,
         AND,
@@ -35,6 +36,9 @@ public class Token {
         OPEN_BRACKET,
         CLOSE_BRACKET,
 
+        OPEN_SQUARE_BRACKET,
+        CLOSE_SQUARE_BRACKET,
+
         OPEN_BRACE,
         CLOSE_BRACE,
 
@@ -45,6 +49,9 @@ public class Token {
         ELSE,
         ELSEIF,
 
+        WHILE,
+        FOR,
+
         END_OF_PROGRAM
     }
 
@@ -52,6 +59,13 @@ public class Token {
 
     private String value;
 
+    // id of identifier in SymbolTable, -1 for other tokens
+    private int symbol = -1;
+
+    // value of tokens from TokenStream is created only when it is asked
+    private TokenStream stream;
+    private int index;
+
     public Token(Type type) {
         this.type = type;
     }
@@ -61,14 +75,35 @@ public class Token {
         this.value = value;
     }
 
+    public Token(Type type, String value, int symbol) {
+        this.type = type;
+        this.value = value;
+        this.symbol = symbol;
+    }
+
+    Token(Type type, TokenStream stream, int index, int symbol) {
+        this.type = type;
+        this.stream = stream;
+        this.index = index;
+        this.symbol = symbol;
+    }
+
     public Type getType() {
         return type;
     }
 
     public String getValue() {
+        if (value == null && stream != null) {
+            value = stream.getValue(index);
+        }
+
         return value;
     }
 
+    public int getSymbol() {
+        return symbol;
+    }
+
     public boolean hasType(Type type) {
         return this.type.equals(type);
     }
@@ -81,7 +116,11 @@ public class Token {
         Token token = (Token) o;
 
         if (type != token.type) return false;
-        if (value != null ? !value.equals(token.value) : token.value != null) return false;
+
+        String value = getValue();
+        String otherValue = token.getValue();
+
+        if (value != null ? !value.equals(otherValue) : otherValue != null) return false;
 
         return true;
     }
@@ -89,12 +128,15 @@ public class Token {
     @Override
     public int hashCode() {
         int result = type != null ? type.hashCode() : 0;
+        String value = getValue();
         result = 31 * result + (value != null ? value.hashCode() : 0);
         return result;
     }
 
     @Override
     public String toString() {
+        String value = getValue();
+
         if (value == null) {
             return type.toString();
         }
@@ -0,0 +1,334 @@
+package tokenizer;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// whole source tokenized at once into parallel arrays (struct of arrays):
+// type, offset and length of every token, without Token and String object per token.
+// Token objects are created only when tokens are read through getToken(),
+// and their values only when getValue() is called
+public class TokenStream implements TokenizerInterface {
+    private static final Token.Type[] TYPES = Token.Type.values();
+
+    private final char[] source;
+    private final int sourceLength;
+
+    private final SymbolTable symbolTable;
+
+    private byte[] types;
+    private int[] offsets;
+    private int[] lengths;
+    // symbol id for identifiers, -1 for other tokens
+    private int[] symbols;
+    private int size = 0;
+
+    // index of token, which will be returned by next getToken()
+    private int position = 0;
+
+    private TokenStream(char[] source, int sourceLength, SymbolTable symbolTable) {
+        this.source = source;
+        this.sourceLength = sourceLength;
+        this.symbolTable = symbolTable;
+
+        // rough guess: average token with spaces takes few characters
+        int capacity = sourceLength / 4 + 16;
+
+        types = new byte[capacity];
+        offsets = new int[capacity];
+        lengths = new int[capacity];
+        symbols = new int[capacity];
+    }
+
+    public static TokenStream tokenize(CharSequence source) throws IllegalCharacterException {
+        return tokenize(source, new SymbolTable());
+    }
+
+    public static TokenStream tokenize(CharSequence source, SymbolTable symbolTable) throws IllegalCharacterException {
+        char[] chars = new char[source.length()];
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = source.charAt(i);
+        }
+
+        return tokenize(chars, chars.length, symbolTable);
+    }
+
+    public static TokenStream tokenize(Path path) throws IOException, IllegalCharacterException {
+        return tokenize(path, new SymbolTable());
+    }
+
+    public static TokenStream tokenize(Path path, SymbolTable symbolTable) throws IOException, IllegalCharacterException {
+        CharBuffer chars;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            chars = StandardCharsets.UTF_8.decode(bytes);
+        }
+
+        // skip UTF-8 byte order mark
+        int start = chars.hasRemaining() && chars.get(chars.position()) == '\uFEFF' ? 1 : 0;
+
+        if (chars.hasArray() && chars.arrayOffset() == 0 && start == 0) {
+            return tokenize(chars.array(), chars.limit(), symbolTable);
+        }
+
+        char[] result = new char[chars.remaining() - start];
+        chars.position(chars.position() + start);
+        chars.get(result);
+
+        return tokenize(result, result.length, symbolTable);
+    }
+
+    public static TokenStream tokenize(char[] source, int length) throws IllegalCharacterException {
+        return tokenize(source, length, new SymbolTable());
+    }
+
+    public static TokenStream tokenize(char[] source, int length, SymbolTable symbolTable) throws IllegalCharacterException {
+        TokenStream stream = new TokenStream(source, length, symbolTable);
+
+        stream.scan();
+
+        return stream;
+    }
+
+    // number of tokens including END_OF_PROGRAM
+    public int size() {
+        return size;
+    }
+
+    public Token.Type getType(int index) {
+        return TYPES[types[index]];
+    }
+
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    public int getLength(int index) {
+        return lengths[index];
+    }
+
+    public int getSymbol(int index) {
+        return symbols[index];
+    }
+
+    public String getValue(int index) {
+        if (symbols[index] >= 0) {
+            return symbolTable.getName(symbols[index]);
+        }
+
+        return new String(source, offsets[index], lengths[index]);
+    }
+
+    @Override
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    // type of token, which is "ahead" tokens after the next one
+    public Token.Type peekType(int ahead) {
+        return getType(Math.min(position + ahead, size - 1));
+    }
+
+    @Override
+    public Token getToken() {
+        int index = position;
+
+        // END_OF_PROGRAM is returned again and again after the end
+        if (position < size - 1) {
+            position++;
+        }
+
+        Token.Type type = TYPES[types[index]];
+
+        switch (type) {
+            case IDENTIFIER:
+            case INTEGER_VALUE:
+            case DOUBLE_VALUE:
+                return new Token(type, this, index, symbols[index]);
+
+            default:
+                return TableTokenizer.READY_TOKENS[types[index]];
+        }
+    }
+
+    private char charAt(int index) {
+        return index < sourceLength ? source[index] : '\u0000';
+    }
+
+    private void scan() throws IllegalCharacterException {
+        int state = TableTokenizer.READY;
+        int start = 0;
+        int index = 0;
+
+        while (true) {
+            char current = charAt(index);
+            int action = TableTokenizer.TRANSITIONS[
+                    state * TableTokenizer.CLASSES_COUNT + TableTokenizer.characterClass(current)];
+
+            if (action >= 0) {
+                if (state == TableTokenizer.READY) {
+                    start = index;
+                }
+
+                index++;
+                state = action;
+                continue;
+            }
+
+            state = TableTokenizer.READY;
+
+            switch (action) {
+                case TableTokenizer.EMIT_INTEGER:
+                    add(Token.Type.INTEGER_VALUE, start, index - start);
+                    break;
+
+                case TableTokenizer.EMIT_DOUBLE:
+                    add(Token.Type.DOUBLE_VALUE, start, index - start);
+                    break;
+
+                case TableTokenizer.EMIT_WORD: {
+                    Token keyword = TableTokenizer.keyword(source, start, index - start);
+
+                    if (keyword != null) {
+                        add(keyword.getType(), start, index - start);
+                    } else {
+                        add(Token.Type.IDENTIFIER, start, index - start);
+                        symbols[size - 1] = symbolTable.intern(source, start, index - start);
+                    }
+                    break;
+                }
+
+                case TableTokenizer.OPERATOR:
+                    if (current == '\u0000') {
+                        add(Token.Type.END_OF_PROGRAM, index, 0);
+                        return;
+                    }
+
+                    index = operator(index);
+                    break;
+
+                default:
+                    throw new IllegalCharacterException(current);
+            }
+        }
+    }
+
+    // adds operator token, which starts at index, and returns index after it
+    private int operator(int index) throws IllegalCharacterException {
+        char current = source[index];
+        char nextChar = charAt(index + 1);
+
+        switch (TableTokenizer.CHARACTER_CLASSES[current]) {
+            case TableTokenizer.SYMBOL:
+                add(TableTokenizer.SYMBOL_TOKENS[current].getType(), index, 1);
+                return index + 1;
+
+            case TableTokenizer.SLASH:
+                if (nextChar == '/') {
+                    return skipOneLineComment(index + 2);
+                } else if (nextChar == '*') {
+                    return skipMultiLineComment(index + 2);
+                }
+                add(Token.Type.DIVIDE, index, 1);
+                return index + 1;
+
+            case TableTokenizer.EQUALS_SIGN:
+                return withOptionalEquals(index, Token.Type.ASSIGN, Token.Type.EQUALS);
+
+            case TableTokenizer.EXCLAMATION:
+                return withOptionalEquals(index, Token.Type.NEGATION, Token.Type.NOT_EQUALS);
+
+            case TableTokenizer.LESS:
+                return withOptionalEquals(index, Token.Type.LESS_THAN, Token.Type.LESS_THAN_OR_EQUALS);
+
+            case TableTokenizer.GREATER:
+                return withOptionalEquals(index, Token.Type.GREATER_THAN, Token.Type.GREATER_THAN_OR_EQUALS);
+
+            case TableTokenizer.AMPERSAND:
+                if (nextChar == '&') {
+                    add(Token.Type.AND, index, 2);
+                    return index + 2;
+                }
+                throw new IllegalCharacterException(current);
+
+            case TableTokenizer.PIPE:
+                if (nextChar == '|') {
+                    add(Token.Type.OR, index, 2);
+                    return index + 2;
+                }
+                throw new IllegalCharacterException(current);
+
+            default:
+                throw new IllegalCharacterException(current);
+        }
+    }
+
+    private int withOptionalEquals(int index, Token.Type single, Token.Type withEquals) {
+        if (charAt(index + 1) == '=') {
+            add(withEquals, index, 2);
+            return index + 2;
+        }
+
+        add(single, index, 1);
+        return index + 1;
+    }
+
+    private int skipOneLineComment(int index) {
+        while (index < sourceLength && source[index] != '\n') {
+            index++;
+        }
+
+        return index;
+    }
+
+    private int skipMultiLineComment(int index) {
+        while (index < sourceLength) {
+            if (source[index] == '*' && charAt(index + 1) == '/') {
+                return index + 2;
+            }
+
+            index++;
+        }
+
+        return index;
+    }
+
+    private void add(Token.Type type, int offset, int length) {
+        if (size == types.length) {
+            int capacity = size + (size >> 1) + 16;
+
+            byte[] newTypes = new byte[capacity];
+            int[] newOffsets = new int[capacity];
+            int[] newLengths = new int[capacity];
+            int[] newSymbols = new int[capacity];
+
+            System.arraycopy(types, 0, newTypes, 0, size);
+            System.arraycopy(offsets, 0, newOffsets, 0, size);
+            System.arraycopy(lengths, 0, newLengths, 0, size);
+            System.arraycopy(symbols, 0, newSymbols, 0, size);
+
+            types = newTypes;
+            offsets = newOffsets;
+            lengths = newLengths;
+            symbols = newSymbols;
+        }
+
+        types[size] = (byte) type.ordinal();
+        offsets[size] = offset;
+        lengths[size] = length;
+        symbols[size] = -1;
+
+        size++;
+    }
+}
@@ -36,6 +36,8 @@ public class Tokenizer implements TokenizerInterface {
         // brackets
         readyTokenTypes.add(Token.Type.OPEN_BRACKET);
         readyTokenTypes.add(Token.Type.CLOSE_BRACKET);
+        readyTokenTypes.add(Token.Type.OPEN_SQUARE_BRACKET);
+        readyTokenTypes.add(Token.Type.CLOSE_SQUARE_BRACKET);
 
         // braces
         readyTokenTypes.add(Token.Type.OPEN_BRACE);
@@ -43,6 +45,7 @@ public class Tokenizer implements TokenizerInterface {
 
         // comparison
         readyTokenTypes.add(Token.Type.EQUALS);
+        readyTokenTypes.add(Token.Type.NOT_EQUALS);
         readyTokenTypes.add(Token.Type.GREATER_THAN);
         readyTokenTypes.add(Token.Type.GREATER_THAN_OR_EQUALS);
         readyTokenTypes.add(Token.Type.LESS_THAN);
@@ -67,6 +70,10 @@ public class Tokenizer implements TokenizerInterface {
         readyTokenTypes.add(Token.Type.ELSE);
         readyTokenTypes.add(Token.Type.ELSEIF);
 
+        // loop keywords
+        readyTokenTypes.add(Token.Type.WHILE);
+        readyTokenTypes.add(Token.Type.FOR);
+
         // other keywords
         readyTokenTypes.add(Token.Type.RETURN);
         readyTokenTypes.add(Token.Type.PRINT);
@@ -87,6 +94,8 @@ public class Tokenizer implements TokenizerInterface {
         keywords.put("if", Token.Type.IF);
         keywords.put("else", Token.Type.ELSE);
         keywords.put("elseif", Token.Type.ELSEIF);
+        keywords.put("while", Token.Type.WHILE);
+        keywords.put("for", Token.Type.FOR);
 
         keywords.put("return", Token.Type.RETURN);
         keywords.put("print", Token.Type.PRINT);
@@ -105,11 +114,12 @@ public class Tokenizer implements TokenizerInterface {
         symbols.put('*', Token.Type.MULTIPLY);
         symbols.put('^', Token.Type.POWER);
 
-        symbols.put('!', Token.Type.NEGATION);
-
         symbols.put('(', Token.Type.OPEN_BRACKET);
         symbols.put(')', Token.Type.CLOSE_BRACKET);
 
+        symbols.put('[', Token.Type.OPEN_SQUARE_BRACKET);
+        symbols.put(']', Token.Type.CLOSE_SQUARE_BRACKET);
+
         symbols.put('{', Token.Type.OPEN_BRACE);
         symbols.put('}', Token.Type.CLOSE_BRACE);
 
@@ -119,8 +129,20 @@ public class Tokenizer implements TokenizerInterface {
 
     private StringBuilder value = new StringBuilder();
 
+    private SymbolTable symbolTable;
+
     public Tokenizer(BufferInterface buffer) {
+        this(buffer, new SymbolTable());
+    }
+
+    public Tokenizer(BufferInterface buffer, SymbolTable symbolTable) {
         this.buffer = buffer;
+        this.symbolTable = symbolTable;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
     }
 
     @Override
@@ -165,6 +187,14 @@ public class Tokenizer implements TokenizerInterface {
                             return readyTokens.get(Token.Type.ASSIGN);
                         }
 
+                        case '!': {
+                            if (nextChar == '=') {
+                                buffer.getChar();
+                                return readyTokens.get(Token.Type.NOT_EQUALS);
+                            }
+                            return readyTokens.get(Token.Type.NEGATION);
+                        }
+
                         case '<': {
                             if (nextChar == '=') {
                                 buffer.getChar();
@@ -254,7 +284,8 @@ public class Tokenizer implements TokenizerInterface {
                         if (keywords.containsKey(result)) {
                             return readyTokens.get(keywords.get(result));
                         } else {
-                            return new Token(Token.Type.IDENTIFIER, value.toString());
+                            int symbol = symbolTable.intern(result);
+                            return new Token(Token.Type.IDENTIFIER, symbolTable.getName(symbol), symbol);
                         }
                     }
                     break;
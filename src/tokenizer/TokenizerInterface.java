@@ -2,4 +2,7 @@ package tokenizer;
 
 public interface TokenizerInterface {
     public Token getToken() throws IllegalCharacterException;
+
+    // table, where identifiers of this source are interned
+    public SymbolTable getSymbolTable();
 }
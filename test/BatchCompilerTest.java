@@ -0,0 +1,53 @@
+import driver.BatchCompiler;
+import org.junit.Assert;
+import org.junit.Test;
+import runner.ProgramRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BatchCompilerTest {
+    @Test
+    public void testEverySourceGetsItsOwnClass() throws Exception {
+        Path directory = Files.createTempDirectory("batch");
+
+        try {
+            Path sources = directory.resolve("sources");
+            Files.createDirectories(sources.resolve("first"));
+            Files.createDirectories(sources.resolve("second"));
+
+            Files.writeString(sources.resolve("first/program.c"), "int one() { return 1; } void main() { print one(); }");
+            Files.writeString(sources.resolve("second/program.c"), "void main() { print 2; }");
+            Files.writeString(sources.resolve("wrong.c"), "void main() { print x; }");
+
+            List<BatchCompiler.Result> results = new BatchCompiler(directory.resolve("out"), 2).compile(List.of(sources));
+
+            Assert.assertEquals(3, results.size());
+            Assert.assertEquals("first_program", results.get(0).getClassName());
+            Assert.assertEquals("second_program", results.get(1).getClassName());
+            Assert.assertTrue(results.get(0).isSuccessful());
+            Assert.assertTrue(results.get(1).isSuccessful());
+            Assert.assertFalse(results.get(2).isSuccessful());
+
+            PrintStream out = System.out;
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            System.setOut(new PrintStream(output, true));
+            try {
+                for (int i = 0; i < 2; i++) {
+                    BatchCompiler.Result result = results.get(i);
+                    ProgramRunner.run(result.getClassName(), Files.readAllBytes(result.getOutput()), new String[0]);
+                }
+            } finally {
+                System.setOut(out);
+            }
+
+            Assert.assertEquals("1\n2\n", output.toString().replace("\r\n", "\n"));
+        } finally {
+            TestFiles.delete(directory);
+        }
+    }
+}
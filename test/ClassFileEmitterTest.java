@@ -0,0 +1,55 @@
+import buffer.Buffer;
+import compiler.ProgramCompiler;
+import org.junit.Assert;
+import org.junit.Test;
+import parser.Parser;
+import parser.nodes.Node;
+import tokenizer.Tokenizer;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+
+public class ClassFileEmitterTest {
+    private static class ByteArrayClassLoader extends ClassLoader {
+        private Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    private byte[] compile(String program) throws Exception {
+        Parser parser = new Parser(new Tokenizer(new Buffer(new StringReader(program), 10)));
+        Node root = parser.parse();
+
+        return new ProgramCompiler().compileClassFile(root);
+    }
+
+    @Test
+    public void testClassFileHeader() throws Exception {
+        byte[] bytes = compile("void main() { print 1; }");
+
+        Assert.assertEquals(0xCA, bytes[0] & 0xff);
+        Assert.assertEquals(0xFE, bytes[1] & 0xff);
+        Assert.assertEquals(0xBA, bytes[2] & 0xff);
+        Assert.assertEquals(0xBE, bytes[3] & 0xff);
+    }
+
+    @Test
+    public void testCompiledMethodsCanBeCalled() throws Exception {
+        byte[] bytes = compile(
+                "int intSum(int a, int b) { return a + b; }\n" +
+                "double half(int a) { return a / 2.0; }\n" +
+                "int cube(int a) { return a ^ 3; }\n" +
+                "void main() { print intSum(2, 3); }");
+
+        Class<?> compiled = new ByteArrayClassLoader().define(ProgramCompiler.CLASS_NAME, bytes);
+
+        Method intSum = compiled.getMethod("intSum", int.class, int.class);
+        Assert.assertEquals(5, intSum.invoke(null, 2, 3));
+
+        Method half = compiled.getMethod("half", int.class);
+        Assert.assertEquals(3.5, half.invoke(null, 7));
+
+        Method cube = compiled.getMethod("cube", int.class);
+        Assert.assertEquals(27, cube.invoke(null, 3));
+    }
+}
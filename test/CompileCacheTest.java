@@ -0,0 +1,83 @@
+import driver.CompileCache;
+import driver.CompilerDriver;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public class CompileCacheTest {
+    private static final byte[] PROGRAM = "void main() { print 1 + 2; }".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testSecondCompilationIsHit() throws Exception {
+        Path directory = Files.createTempDirectory("cache");
+
+        try {
+            CompilerDriver driver = new CompilerDriver(new CompileCache(directory));
+
+            byte[] first = driver.compile(PROGRAM);
+            byte[] second = driver.compile(PROGRAM);
+
+            Assert.assertArrayEquals(first, second);
+            Assert.assertEquals(1, driver.getCache().getMisses());
+            Assert.assertEquals(1, driver.getCache().getHits());
+
+            // different options give different key
+            driver.setOptimize(false);
+            driver.compile(PROGRAM);
+
+            Assert.assertEquals(2, driver.getCache().getMisses());
+        } finally {
+            TestFiles.delete(directory);
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() throws Exception {
+        Path directory = Files.createTempDirectory("cache");
+
+        try {
+            CompileCache cache = new CompileCache(directory, 10);
+
+            cache.put("old", new byte[6]);
+            Files.setLastModifiedTime(directory.resolve("old.class"), FileTime.fromMillis(1000));
+
+            cache.put("new", new byte[6]);
+
+            Assert.assertNull(cache.get("old"));
+            Assert.assertNotNull(cache.get("new"));
+            Assert.assertEquals(1, cache.getEvictions());
+        } finally {
+            TestFiles.delete(directory);
+        }
+    }
+
+    @Test
+    public void testReplacedEntryIsNotCountedTwice() throws Exception {
+        Path directory = Files.createTempDirectory("cache");
+
+        try {
+            CompileCache cache = new CompileCache(directory, 10);
+
+            cache.put("other", new byte[4]);
+
+            for (int i = 0; i < 5; i++) {
+                cache.put("same", new byte[6]);
+            }
+
+            Assert.assertNotNull(cache.get("other"));
+            Assert.assertEquals(0, cache.getEvictions());
+        } finally {
+            TestFiles.delete(directory);
+        }
+    }
+
+    @Test
+    public void testKeyDependsOnOptions() {
+        Assert.assertNotEquals(CompileCache.key(PROGRAM, "a"), CompileCache.key(PROGRAM, "b"));
+        Assert.assertEquals(64, CompileCache.key(PROGRAM, "a").length());
+    }
+}
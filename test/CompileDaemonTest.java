@@ -0,0 +1,65 @@
+import compiler.CompilationErrorException;
+import daemon.CompileClient;
+import daemon.CompileDaemon;
+import driver.CompilerDriver;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CompileDaemonTest {
+    private static final byte[] PROGRAM = "int twice(int a) { return a * 2; } void main() { print twice(4); }"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testCompileOverSocket() throws Exception {
+        try (CompileDaemon daemon = new CompileDaemon(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2)) {
+            daemon.start();
+
+            try (CompileClient client = new CompileClient(daemon.getAddress())) {
+                CompilerDriver driver = new CompilerDriver();
+                driver.setClassName("Remote");
+
+                Assert.assertArrayEquals(driver.compile(PROGRAM), client.compileClassFile(PROGRAM, "Remote"));
+                Assert.assertTrue(client.compileJasmin(PROGRAM, "Remote").contains("public Remote"));
+
+                try {
+                    client.compileClassFile("void main() { print x; }".getBytes(StandardCharsets.UTF_8), "Remote");
+                    Assert.fail();
+                } catch (CompilationErrorException e) {
+                    Assert.assertTrue(e.getMessage().contains("'x'"));
+                }
+
+                // connection is still usable after error
+                Assert.assertArrayEquals(driver.compile(PROGRAM), client.compileClassFile(PROGRAM, "Remote"));
+            }
+        }
+    }
+
+    @Test
+    public void testIdleConnectionsDoNotBlockOthers() throws Exception {
+        try (CompileDaemon daemon = new CompileDaemon(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2)) {
+            daemon.start();
+
+            List<CompileClient> idle = new ArrayList<>();
+
+            try {
+                for (int i = 0; i < 4; i++) {
+                    idle.add(new CompileClient(daemon.getAddress()));
+                }
+
+                try (CompileClient client = new CompileClient(daemon.getAddress())) {
+                    Assert.assertTrue(client.compileJasmin(PROGRAM, "Remote").contains("public Remote"));
+                }
+            } finally {
+                for (CompileClient client : idle) {
+                    client.close();
+                }
+            }
+        }
+    }
+}
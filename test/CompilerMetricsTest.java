@@ -0,0 +1,57 @@
+import driver.CompilerDriver;
+import metrics.CompilerMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+public class CompilerMetricsTest {
+    private static final String PROGRAM =
+            "int twice(int a) { return a * 2; }\n" +
+            "void main() { print twice(1 + 2); }";
+
+    @Test
+    public void testPhasesAreRecorded() throws Exception {
+        CompilerMetrics metrics = new CompilerMetrics();
+
+        CompilerDriver driver = new CompilerDriver();
+        driver.setMetrics(metrics);
+
+        byte[] classBytes = driver.compile(PROGRAM.getBytes(StandardCharsets.UTF_8));
+
+        for (CompilerMetrics.Phase phase : CompilerMetrics.Phase.values()) {
+            Assert.assertEquals(1, metrics.getRuns(phase));
+        }
+
+        Assert.assertEquals(PROGRAM.length(), metrics.getCount(CompilerMetrics.Counter.CHARS_READ));
+        Assert.assertEquals(2, metrics.getCount(CompilerMetrics.Counter.METHODS));
+        Assert.assertEquals(1, metrics.getCount(CompilerMetrics.Counter.FOLDED_NODES));
+        Assert.assertEquals(classBytes.length, metrics.getCount(CompilerMetrics.Counter.BYTES_WRITTEN));
+        Assert.assertTrue(metrics.getCount(CompilerMetrics.Counter.TOKENS) > 20);
+        Assert.assertTrue(metrics.getCount(CompilerMetrics.Counter.INSTRUCTIONS) > 10);
+        Assert.assertTrue(metrics.getReport().contains("TOKENIZE"));
+
+        metrics.reset();
+        Assert.assertEquals(0, metrics.getCount(CompilerMetrics.Counter.TOKENS));
+    }
+
+    @Test
+    public void testJmxAttributes() throws Exception {
+        CompilerMetrics metrics = new CompilerMetrics();
+        metrics.add(CompilerMetrics.Counter.TOKENS, 5);
+        metrics.register();
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            TabularData counts = (TabularData) server.getAttribute(new ObjectName(CompilerMetrics.OBJECT_NAME), "Counts");
+
+            Assert.assertEquals(5L, counts.get(new Object[] {"TOKENS"}).get("value"));
+        } finally {
+            metrics.unregister();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import optimizer.ConstantFolder;
+import org.junit.Assert;
+import org.junit.Test;
+import parser.Parser;
+import parser.nodes.*;
+import tokenizer.TokenStream;
+
+public class ConstantFolderTest {
+    // expression of "print" command of the only method
+    private Node foldPrint(String declarations, String expression) throws Exception {
+        Node root = new Parser(TokenStream.tokenize(
+                "void main() { " + declarations + " print " + expression + "; }")).parse();
+
+        new ConstantFolder().fold(root);
+
+        BodyNode body = ((MethodNode) root.getChild(0)).getBody();
+
+        return body.getChild(body.getChildren().size() - 1).getChild(0);
+    }
+
+    private void assertValue(String expected, ValueNode.ValueType type, Node node) {
+        Assert.assertEquals(NodeType.VALUE, node.getNodeType());
+        Assert.assertEquals(type, ((ValueNode) node).getValueType());
+        Assert.assertEquals(expected, ((ValueNode) node).getValue());
+    }
+
+    @Test
+    public void testFoldArithmetic() throws Exception {
+        assertValue("7", ValueNode.ValueType.INTEGER_VALUE, foldPrint("", "1 + 2 * 3"));
+        assertValue("3", ValueNode.ValueType.INTEGER_VALUE, foldPrint("", "7 / 2"));
+        assertValue("3.5", ValueNode.ValueType.DOUBLE_VALUE, foldPrint("", "7 / 2.0"));
+        assertValue("-8", ValueNode.ValueType.INTEGER_VALUE, foldPrint("", "-(2 ^ 3)"));
+        assertValue("1", ValueNode.ValueType.INTEGER_VALUE, foldPrint("", "1 < 2 && !(3 == 4)"));
+    }
+
+    @Test
+    public void testKeepRuntimeErrors() throws Exception {
+        Assert.assertEquals(NodeType.TERM, foldPrint("", "1 / 0").getNodeType());
+        // infinity cannot be written as constant
+        Assert.assertEquals(NodeType.TERM, foldPrint("", "1.0 / 0").getNodeType());
+    }
+
+    @Test
+    public void testIdentities() throws Exception {
+        Assert.assertEquals(NodeType.VARIABLE_GET, foldPrint("double x;", "x * 1").getNodeType());
+        Assert.assertEquals(NodeType.VARIABLE_GET, foldPrint("double x;", "x / 1.0").getNodeType());
+        Assert.assertEquals(NodeType.VARIABLE_GET, foldPrint("double x;", "x - 0").getNodeType());
+        Assert.assertEquals(NodeType.VARIABLE_GET, foldPrint("int x;", "0 + x").getNodeType());
+        Assert.assertEquals(NodeType.UNARY_OPERATION, foldPrint("int x;", "x * -1").getNodeType());
+        Assert.assertEquals(NodeType.VARIABLE_GET, foldPrint("int x;", "-(-x)").getNodeType());
+    }
+
+    @Test
+    public void testIdentitiesKeepTypes() throws Exception {
+        // int x * 1.0 is double
+        Assert.assertEquals(NodeType.TERM, foldPrint("int x;", "x * 1.0").getNodeType());
+        // -0.0 + 0 is 0.0
+        Assert.assertEquals(NodeType.EXPRESSION, foldPrint("double x;", "x + 0").getNodeType());
+    }
+}
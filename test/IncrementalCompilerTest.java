@@ -0,0 +1,46 @@
+import driver.CompilerDriver;
+import driver.IncrementalCompiler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class IncrementalCompilerTest {
+    private static final String SQUARE = "int square(int x) { return x * x; }\n";
+    private static final String HALF = "double half(double x) { return x / 2; }\n";
+    private static final String MAIN = "void main() { print square(3); print half(5); }\n";
+
+    private static byte[] fullCompile(String source) throws Exception {
+        return new CompilerDriver().compile(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testOnlyChangedMethodIsCompiled() throws Exception {
+        IncrementalCompiler compiler = new IncrementalCompiler();
+
+        compiler.compile(SQUARE + HALF + MAIN);
+        Assert.assertEquals(3, compiler.getCompiledCount());
+
+        String changed = SQUARE + "double half(double x) { return x / 2 + 0 * 1; }\n" + MAIN;
+        byte[] result = compiler.compile(changed);
+
+        Assert.assertEquals(1, compiler.getCompiledCount());
+        Assert.assertEquals(2, compiler.getReusedCount());
+        Assert.assertArrayEquals(fullCompile(changed), result);
+    }
+
+    @Test
+    public void testCallersOfChangedSignatureAreCompiled() throws Exception {
+        IncrementalCompiler compiler = new IncrementalCompiler();
+
+        compiler.compile(SQUARE + HALF + MAIN);
+
+        String changed = "double square(int x) { return x * x; }\n" + HALF + MAIN;
+        byte[] result = compiler.compile(changed);
+
+        // square itself and main, which calls it
+        Assert.assertEquals(2, compiler.getCompiledCount());
+        Assert.assertEquals(1, compiler.getReusedCount());
+        Assert.assertArrayEquals(fullCompile(changed), result);
+    }
+}
@@ -0,0 +1,79 @@
+import compiler.CompilationErrorException;
+import compiler.InstructionList;
+import compiler.MethodSignature;
+import compiler.Opcode;
+import compiler.ProgramCompiler;
+import compiler.ir.BasicBlock;
+import compiler.ir.CodeGenerator;
+import compiler.ir.Condition;
+import compiler.ir.IrBuilder;
+import compiler.ir.MethodIr;
+import compiler.ir.Register;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class IrBuilderTest {
+    private static final MethodSignature MAX = new MethodSignature("max",
+            new ProgramCompiler.ValueType[] {ProgramCompiler.ValueType.I, ProgramCompiler.ValueType.I}, ProgramCompiler.ValueType.I);
+
+    // int max(int a, int b) { int c; if (a > b) { c = a; } else { c = b; }; return c; }
+    private MethodIr max() throws CompilationErrorException {
+        IrBuilder builder = new IrBuilder();
+
+        Register a = builder.newRegister("a", ProgramCompiler.ValueType.I);
+        Register b = builder.newRegister("b", ProgramCompiler.ValueType.I);
+        Register c = builder.newRegister("c", ProgramCompiler.ValueType.I);
+
+        builder.load(a);
+        builder.load(b);
+        builder.branchCompare(Condition.GT.negate(), "else");
+        builder.load(a);
+        builder.store(c);
+        builder.jump("end");
+        builder.label("else");
+        builder.load(b);
+        builder.store(c);
+        builder.label("end");
+        builder.load(c);
+        builder.returnValue(ProgramCompiler.ValueType.I);
+
+        return builder.build(MAX, 2);
+    }
+
+    @Test
+    public void testBasicBlocks() throws Exception {
+        List<BasicBlock> blocks = max().getBlocks();
+
+        Assert.assertEquals(4, blocks.size());
+        Assert.assertEquals(List.of(blocks.get(2), blocks.get(1)), blocks.get(0).getSuccessors());
+        Assert.assertEquals(List.of(blocks.get(3)), blocks.get(1).getSuccessors());
+        Assert.assertEquals(List.of(blocks.get(3)), blocks.get(2).getSuccessors());
+        Assert.assertTrue(blocks.get(3).getSuccessors().isEmpty());
+        Assert.assertEquals("end", blocks.get(3).getLabel());
+    }
+
+    @Test(expected = CompilationErrorException.class)
+    public void testUnknownLabel() throws Exception {
+        IrBuilder builder = new IrBuilder();
+        builder.jump("nowhere");
+        builder.build(MAX, 0);
+    }
+
+    @Test
+    public void testDeadParameterSlotIsReused() throws Exception {
+        InstructionList code = new InstructionList();
+        new CodeGenerator().generate(max(), code);
+
+        List<InstructionList.Instruction> instructions = code.getInstructions();
+
+        Assert.assertEquals(Opcode.ILOAD, instructions.get(2).getOpcode());
+        Assert.assertEquals(1, instructions.get(2).getIndex());
+
+        // a and b are not needed any more, when c gets its value
+        Assert.assertEquals(Opcode.ISTORE, instructions.get(5).getOpcode());
+        Assert.assertEquals(0, instructions.get(5).getIndex());
+        Assert.assertEquals(2, instructions.get(instructions.size() - 1).getMaxLocals());
+    }
+}
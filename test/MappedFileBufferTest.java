@@ -0,0 +1,60 @@
+import buffer.MappedFileBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedFileBufferTest {
+    private MappedFileBuffer createBuffer(String content) throws Exception {
+        Path file = Files.createTempFile("buffer", ".c");
+        file.toFile().deleteOnExit();
+
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+        return new MappedFileBuffer(file);
+    }
+
+    @Test
+    public void testGetChar() throws Exception {
+        MappedFileBuffer buffer = createBuffer("Y*HE");
+
+        Assert.assertEquals('Y', buffer.getChar());
+        Assert.assertEquals('*', buffer.getChar());
+        Assert.assertEquals('H', buffer.getChar());
+        Assert.assertEquals('E', buffer.getChar());
+        Assert.assertEquals('\u0000', buffer.getChar());
+        Assert.assertEquals('\u0000', buffer.getChar());
+    }
+
+    @Test
+    public void testPeekChar() throws Exception {
+        MappedFileBuffer buffer = createBuffer("D=S");
+
+        Assert.assertEquals('D', buffer.peekChar());
+        Assert.assertEquals('D', buffer.peekChar());
+
+        buffer.getChar();
+
+        Assert.assertEquals('=', buffer.peekChar());
+        Assert.assertEquals('S', buffer.peekNextChar());
+
+        buffer.getChar();
+
+        Assert.assertEquals('\u0000', buffer.peekNextChar());
+    }
+
+    @Test
+    public void testMultiByteCharacters() throws Exception {
+        MappedFileBuffer buffer = createBuffer("\uFEFFa\u00E9\u20ACb");
+
+        Assert.assertEquals('a', buffer.getChar());
+        Assert.assertEquals('\u00E9', buffer.peekChar());
+        Assert.assertEquals('\u20AC', buffer.peekNextChar());
+        Assert.assertEquals('\u00E9', buffer.getChar());
+        Assert.assertEquals('\u20AC', buffer.getChar());
+        Assert.assertEquals('b', buffer.getChar());
+        Assert.assertEquals('\u0000', buffer.getChar());
+    }
+}
@@ -0,0 +1,40 @@
+import org.junit.Assert;
+import org.junit.Test;
+import parser.CountingParserListener;
+import parser.Parser;
+import parser.Production;
+import parser.TracingParserListener;
+import tokenizer.TokenStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+public class ParserListenerTest {
+    private static final String PROGRAM = "int f(int a) { return a + 1; } void main() { print f(2); }";
+
+    @Test
+    public void testCounting() throws Exception {
+        CountingParserListener listener = new CountingParserListener();
+
+        new Parser(TokenStream.tokenize(PROGRAM), listener).parse();
+
+        Assert.assertEquals(1, listener.getProductions(Production.PROGRAM));
+        Assert.assertEquals(2, listener.getProductions(Production.METHOD));
+        Assert.assertEquals(2, listener.getProductions(Production.BODY));
+        // every token including end of program is consumed exactly once
+        Assert.assertEquals(TokenStream.tokenize(PROGRAM).size(), listener.getTokens());
+        Assert.assertTrue(listener.getMaxDepth() > 5);
+    }
+
+    @Test
+    public void testTracing() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        new Parser(TokenStream.tokenize(PROGRAM), new TracingParserListener(new PrintStream(bytes))).parse();
+
+        String[] lines = bytes.toString().split("\n");
+
+        Assert.assertTrue(lines[0].startsWith("PROGRAM INTEGER_TYPE"));
+        Assert.assertTrue(lines[1].startsWith("  METHOD INTEGER_TYPE"));
+    }
+}
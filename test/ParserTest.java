@@ -109,6 +109,37 @@ public class ParserTest {
         Assert.assertEquals( expected, parser.parseExpression() );
     }
 
+    @Test
+    public void testParseExpressionPrecedence() throws Exception {
+        createParserFromString( "a || b && 1 + 2 * 3 > 4 - 5 - 6" );
+
+        Node or = parser.parseExpression();
+        Assert.assertEquals( Token.Type.OR, or.getValueToken().getType() );
+
+        Node and = or.getChild( 1 );
+        Assert.assertEquals( Token.Type.AND, and.getValueToken().getType() );
+
+        Node greater = and.getChild( 1 );
+        Assert.assertEquals( Token.Type.GREATER_THAN, greater.getValueToken().getType() );
+        Assert.assertEquals( Token.Type.PLUS, greater.getChild( 0 ).getValueToken().getType() );
+        Assert.assertEquals( Token.Type.MULTIPLY, greater.getChild( 0 ).getChild( 1 ).getValueToken().getType() );
+
+        // subtraction is left associative
+        Node minus = greater.getChild( 1 );
+        Assert.assertEquals( Token.Type.MINUS, minus.getChild( 0 ).getValueToken().getType() );
+        Assert.assertEquals( "6", minus.getChild( 1 ).getValueToken().getValue() );
+    }
+
+    @Test
+    public void testParsePowerAssociativity() throws Exception {
+        createParserFromString( "2 ^ 3 ^ 4" );
+
+        Node power = parser.parseExpression();
+
+        Assert.assertEquals( "2", power.getChild( 0 ).getValueToken().getValue() );
+        Assert.assertEquals( Token.Type.POWER, power.getChild( 1 ).getValueToken().getType() );
+    }
+
     @Test
     public void testParseTerm() throws Exception {
         createParserFromString("7*42.2");
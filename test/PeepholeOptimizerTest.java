@@ -0,0 +1,99 @@
+import compiler.InstructionList;
+import compiler.Opcode;
+import compiler.PeepholeOptimizer;
+import compiler.ProgramCompiler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PeepholeOptimizerTest {
+    private List<Opcode> opcodes(InstructionList code) {
+        List<Opcode> result = new ArrayList<>();
+
+        for (InstructionList.Instruction instruction : code.getInstructions()) {
+            if (instruction.getOpcode() != null) {
+                result.add(instruction.getOpcode());
+            }
+        }
+
+        return result;
+    }
+
+    // code generated for cast of int under double on stack top
+    private void promoteSecond(InstructionList code) {
+        code.instruction(Opcode.DUP2_X1);
+        code.instruction(Opcode.POP2);
+        code.instruction(Opcode.I2D);
+        code.instruction(Opcode.DUP2_X2);
+        code.instruction(Opcode.POP2);
+    }
+
+    @Test
+    public void testShortConstants() throws Exception {
+        InstructionList code = new InstructionList();
+        code.constant(ProgramCompiler.ValueType.I, "-1");
+        code.constant(ProgramCompiler.ValueType.I, "5");
+        code.constant(ProgramCompiler.ValueType.I, "100");
+        code.constant(ProgramCompiler.ValueType.I, "-1000");
+        code.constant(ProgramCompiler.ValueType.I, "100000");
+        code.constant(ProgramCompiler.ValueType.D, "1.0");
+        code.constant(ProgramCompiler.ValueType.D, "-0.0");
+
+        InstructionList result = new PeepholeOptimizer().optimize(code);
+
+        Assert.assertEquals(List.of(Opcode.ICONST_M1, Opcode.ICONST_5, Opcode.BIPUSH, Opcode.SIPUSH, Opcode.DCONST_1),
+                opcodes(result));
+        Assert.assertEquals(-1000, result.getInstructions().get(3).getIndex());
+        Assert.assertEquals(InstructionList.Kind.CONSTANT, result.getInstructions().get(4).getKind());
+        Assert.assertEquals(InstructionList.Kind.CONSTANT, result.getInstructions().get(6).getKind());
+    }
+
+    @Test
+    public void testVariables() throws Exception {
+        InstructionList code = new InstructionList();
+        code.variable(Opcode.ILOAD, 2, "a");
+        code.instruction(Opcode.INEG);
+        code.variable(Opcode.ISTORE, 2, "a");
+        code.variable(Opcode.ILOAD, 2, "a");
+        code.variable(Opcode.DLOAD, 4, "b");
+        code.variable(Opcode.DSTORE, 4, "b");
+        code.variable(Opcode.DSTORE, 4, "b");
+        code.instruction(Opcode.IRETURN);
+        code.endMethod(3, 6);
+
+        InstructionList result = new PeepholeOptimizer().optimize(code);
+
+        Assert.assertEquals(List.of(Opcode.ILOAD_2, Opcode.INEG, Opcode.DUP, Opcode.ISTORE_2, Opcode.DSTORE, Opcode.IRETURN),
+                opcodes(result));
+
+        InstructionList.Instruction end = result.getInstructions().get(result.size() - 1);
+        Assert.assertEquals(3, end.getIndex());
+        Assert.assertEquals(6, end.getMaxLocals());
+    }
+
+    @Test
+    public void testPromotionAndJumps() throws Exception {
+        InstructionList code = new InstructionList();
+        code.variable(Opcode.ILOAD, 0, "a");
+        code.variable(Opcode.DLOAD, 1, "b");
+        promoteSecond(code);
+        code.instruction(Opcode.DSUB);
+        code.variable(Opcode.ILOAD, 0, "a");
+        code.variable(Opcode.DLOAD, 1, "b");
+        promoteSecond(code);
+        code.instruction(Opcode.DADD);
+        code.instruction(Opcode.DDIV);
+        code.jump(Opcode.GOTO, "end");
+        code.comment("skipped");
+        code.label("end");
+        code.instruction(Opcode.DRETURN);
+
+        // swap back is needed only before operation, which is not commutative
+        Assert.assertEquals(List.of(Opcode.ILOAD_0, Opcode.DLOAD_1, Opcode.DUP2_X1, Opcode.POP2, Opcode.I2D,
+                Opcode.DUP2_X2, Opcode.POP2, Opcode.DSUB,
+                Opcode.ILOAD_0, Opcode.DLOAD_1, Opcode.DUP2_X1, Opcode.POP2, Opcode.I2D, Opcode.DADD,
+                Opcode.DDIV, Opcode.DRETURN), opcodes(new PeepholeOptimizer().optimize(code)));
+    }
+}
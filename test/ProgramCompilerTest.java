@@ -0,0 +1,153 @@
+import compiler.CompilationErrorException;
+import compiler.InstructionList;
+import compiler.JasminEmitter;
+import compiler.Opcode;
+import compiler.ProgramCompiler;
+import org.junit.Assert;
+import org.junit.Test;
+import parser.Parser;
+import parser.nodes.Node;
+import tokenizer.TokenStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ProgramCompilerTest {
+    private Node parse(String program) throws Exception {
+        return new Parser(TokenStream.tokenize(program)).parse();
+    }
+
+    // identifiers can contain only letters
+    private String methodName(int index) {
+        StringBuilder name = new StringBuilder("f");
+
+        do {
+            name.append((char) ('a' + index % 26));
+            index /= 26;
+        } while (index > 0);
+
+        return name.toString();
+    }
+
+    @Test
+    public void testParallelCompilationKeepsSourceOrder() throws Exception {
+        StringBuilder program = new StringBuilder();
+
+        for (int i = 0; i < 200; i++) {
+            program.append("int ").append(methodName(i)).append("(int a) { return a + ").append(i).append("; }\n");
+        }
+        program.append("void main() { print ").append(methodName(199)).append("(1); }");
+
+        Node root = parse(program.toString());
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool parallel = new ForkJoinPool(8);
+
+        try {
+            byte[] expected = new ProgramCompiler(single).compileClassFile(root);
+
+            for (int i = 0; i < 5; i++) {
+                Assert.assertArrayEquals(expected, new ProgramCompiler(parallel).compileClassFile(root));
+            }
+        } finally {
+            single.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test(expected = CompilationErrorException.class)
+    public void testMethodDeclaredTwice() throws Exception {
+        new ProgramCompiler().compileClassFile(parse(
+                "int f(int a) { return a; } double f(double a) { return a; } void main() { print f(1); }"));
+    }
+
+    @Test(expected = CompilationErrorException.class)
+    public void testUnknownMethod() throws Exception {
+        new ProgramCompiler().compileClassFile(parse("void main() { print g(1); }"));
+    }
+
+    @Test(expected = CompilationErrorException.class)
+    public void testMissingReturn() throws Exception {
+        new ProgramCompiler().compileClassFile(parse("int f(int a) { print a; } void main() { print f(1); }"));
+    }
+
+    @Test
+    public void testStreamingOutput() throws Exception {
+        Node root = parse("int f(int a) { return a * 2; } void main() { print f(1); }");
+
+        ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        new ProgramCompiler().compileClassFile(root, classBytes);
+
+        Assert.assertArrayEquals(new ProgramCompiler().compileClassFile(root), classBytes.toByteArray());
+
+        StringWriter jasmin = new StringWriter();
+        new ProgramCompiler().compileProgram(root, jasmin);
+
+        JasminEmitter emitter = new JasminEmitter();
+        new ProgramCompiler().compileProgram(root, emitter);
+
+        Assert.assertEquals(emitter.getCode(), jasmin.toString());
+        Assert.assertTrue(jasmin.toString().contains("public static f(I)I"));
+    }
+
+    @Test
+    public void testLoopConditionIsAtBottom() throws Exception {
+        InstructionList code = new InstructionList();
+        new ProgramCompiler().compileProgram(parse(
+                "void main() { int i; i = 0; while (i < 10) { i = i + 1; }; print i; }"), code);
+
+        List<String> labels = new ArrayList<>();
+        List<InstructionList.Instruction> jumps = new ArrayList<>();
+
+        for (InstructionList.Instruction instruction : code.getInstructions()) {
+            if (instruction.getKind() == InstructionList.Kind.LABEL) {
+                labels.add(instruction.getName());
+            } else if (instruction.getKind() == InstructionList.Kind.JUMP) {
+                jumps.add(instruction);
+            }
+        }
+
+        // jump to the condition on entry and conditional jump back to the body
+        Assert.assertEquals(2, jumps.size());
+        Assert.assertEquals(Opcode.GOTO, jumps.get(0).getOpcode());
+        Assert.assertEquals(labels.get(1), jumps.get(0).getName());
+        Assert.assertEquals(labels.get(0), jumps.get(1).getName());
+    }
+
+    @Test
+    public void testArrayElementOpcodes() throws Exception {
+        InstructionList code = new InstructionList();
+        new ProgramCompiler().compileProgram(parse(
+                "void main() { int a[5]; double b[5]; a[1] = 2; b[a[1]] = a[1]; print b[2]; }"), code);
+
+        List<Opcode> opcodes = new ArrayList<>();
+
+        for (InstructionList.Instruction instruction : code.getInstructions()) {
+            opcodes.add(instruction.getOpcode());
+        }
+
+        Assert.assertTrue(opcodes.contains(Opcode.NEWARRAY));
+        Assert.assertTrue(opcodes.contains(Opcode.IASTORE));
+        Assert.assertTrue(opcodes.contains(Opcode.IALOAD));
+        Assert.assertTrue(opcodes.contains(Opcode.DASTORE));
+        Assert.assertTrue(opcodes.contains(Opcode.DALOAD));
+    }
+
+    @Test(expected = CompilationErrorException.class)
+    public void testArrayIndexMustBeInteger() throws Exception {
+        new ProgramCompiler().compileProgram(parse("void main() { int a[5]; a[1.5] = 2; }"), new InstructionList());
+    }
+
+    @Test
+    public void testMethodErrorIsNotWrapped() throws Exception {
+        try {
+            new ProgramCompiler().compileProgram(parse("void main() { x = 1; }"), new InstructionList());
+            Assert.fail();
+        } catch (CompilationErrorException e) {
+            Assert.assertEquals("Compilation error: Variable with name 'x' was not declared earlier", e.getMessage());
+        }
+    }
+}
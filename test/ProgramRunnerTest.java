@@ -0,0 +1,145 @@
+import buffer.Buffer;
+import compiler.Opcode;
+import compiler.ProgramCompiler;
+import compiler.classfile.ClassFileEmitter;
+import org.junit.Assert;
+import org.junit.Test;
+import parser.Parser;
+import runner.ExecutionErrorException;
+import runner.ProgramRunner;
+import tokenizer.Tokenizer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+
+public class ProgramRunnerTest {
+    private String runProgram(String program) throws Exception {
+        Parser parser = new Parser(new Tokenizer(new Buffer(new StringReader(program), 10)));
+        byte[] classBytes = new ProgramCompiler().compileClassFile(parser.parse());
+
+        PrintStream out = System.out;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        System.setOut(new PrintStream(output, true));
+        try {
+            ProgramRunner.run(ProgramCompiler.CLASS_NAME, classBytes, new String[0]);
+        } finally {
+            System.setOut(out);
+        }
+
+        return output.toString().replace("\r\n", "\n");
+    }
+
+    @Test
+    public void testRun() throws Exception {
+        Assert.assertEquals("5\n", runProgram(
+                "int intSum(int a, int b) { return a + b; }\n" +
+                "void main() { print intSum(2, 3); }"));
+    }
+
+    @Test
+    public void testSameClassNameCanBeRunTwice() throws Exception {
+        Assert.assertEquals("1\n", runProgram("void main() { print 1; }"));
+        Assert.assertEquals("2.5\n", runProgram("void main() { print 2.5; }"));
+    }
+
+    @Test
+    public void testMethodCanBeCalledBeforeDeclaration() throws Exception {
+        Assert.assertEquals("6\n", runProgram(
+                "void main() { print twice(3); }\n" +
+                "int twice(int a) { return a * 2; }"));
+    }
+
+    @Test
+    public void testVariablesShareSlots() throws Exception {
+        StringBuilder program = new StringBuilder("void main() { double sum; sum = 0.0;\n");
+
+        // more variables than slots used to be available, only one of them is live at a time
+        for (int i = 0; i < 150; i++) {
+            String name = "v" + (char) ('a' + i / 26) + (char) ('a' + i % 26);
+            boolean isInteger = i % 2 == 0;
+
+            program.append(isInteger ? "int " : "double ").append(name).append("; ")
+                    .append(name).append(" = ").append(i).append(isInteger ? "; " : ".0; ")
+                    .append("sum = sum + ").append(name).append(";\n");
+        }
+        program.append("print sum; }");
+
+        Assert.assertEquals("11175.0\n", runProgram(program.toString()));
+    }
+
+    @Test
+    public void testLoops() throws Exception {
+        Assert.assertEquals("55\n120\n36\n", runProgram(
+                "int factorial(int n) { int result; result = 1; while (n > 1) { result = result * n; n = n - 1; }; return result; }\n" +
+                "int firstSquareAbove(int limit) { int i; for (i = 0; 1 == 1; i = i + 1) { if (i * i > limit) { return i * i; }; }; return 0; }\n" +
+                "void main() { int i; int j; int sum; sum = 0;\n" +
+                "for (i = 1; i <= 10; i = i + 1) { sum = sum + i; };\n" +
+                "print sum; print factorial(5);\n" +
+                "sum = 0; for (i = 0; i < 6; i = i + 1) { for (j = 0; j < i; j = j + 1) { sum = sum + 1; }; sum = sum + 1; };\n" +
+                "for (; sum < 0;) { print 0; };\n" +
+                "print firstSquareAbove(sum - 6 * 0 + 6); }"));
+    }
+
+    @Test
+    public void testArrays() throws Exception {
+        Assert.assertEquals("285\n4.0\n2.0\n3\n", runProgram(
+                "int sumOfSquares(int n) { int a[10]; int i; int sum; sum = 0;\n" +
+                "for (i = 0; i < n; i = i + 1) { a[i] = i * i; };\n" +
+                "for (i = 0; i < n; i = i + 1) { sum = sum + a[i]; };\n" +
+                "return sum; }\n" +
+                "void main() { double b[3]; int c[4]; int k;\n" +
+                "print sumOfSquares(10);\n" +
+                "b[0] = 1.5; b[1] = 2; b[2] = b[0] * b[1] + 1; print b[2];\n" +
+                "k = 2; b[k - 1] = b[k] / 2; print b[1];\n" +
+                "c[1 + 2] = 3.7; print c[3] + c[0]; }"));
+    }
+
+    @Test
+    public void testCallResultIsDroppedInLoops() throws Exception {
+        Assert.assertEquals("0\n1\n2\n3.0\n4.5\n", runProgram(
+                "int f(int x) { print x; return x; }\n" +
+                "double g(double x) { print x; return x; }\n" +
+                "void main() { int i; i = 0; while (i < 3) { f(i); i = i + 1; };\n" +
+                "for (i = 1; i < 3; g(i * 1.5)) { i = i + 1; }; }"));
+    }
+
+    @Test
+    public void testComparisonWithNaNIsFalse() throws Exception {
+        Assert.assertEquals("0\n0\n1\n0\n1\n", runProgram(
+                "void main() { double z; z = 0.0; z = z / z;\n" +
+                "if (z < 1.0) { print 111; }; if (z > 1.0) { print 222; };\n" +
+                "if (z <= 1.0 || z >= 1.0 || z == z) { print 333; };\n" +
+                "print z < 1.0; print z >= 1.0; print z != z;\n" +
+                "print z > 1.0 && 1 == 1; print !(z <= 1.0); }"));
+    }
+
+    @Test
+    public void testBranchEndingWithNestedReturns() throws Exception {
+        Assert.assertEquals("1\n2\n0\n3\n", runProgram(
+                "int g(int n) { if (n > 0) { if (n > 5) { return 2; } else { return 1; }; } else { return 0; }; }\n" +
+                "int h(int n) { if (n > 0) { if (n > 5) { return 2; } elseif (n > 2) { return 3; } else { return 1; }; }; return 0; }\n" +
+                "void main() { print g(3); print g(7); print g(-1); print h(4); }"));
+    }
+
+    @Test
+    public void testVerifyErrorIsNotReportedAsMissingMain() throws Exception {
+        // iadd without operands
+        ClassFileEmitter emitter = new ClassFileEmitter();
+        emitter.beginClass("Broken");
+        emitter.beginMethod("main", "([Ljava/lang/String;)V");
+        emitter.instruction(Opcode.IADD);
+        emitter.instruction(Opcode.RETURN);
+        emitter.endMethod(2, 1);
+        emitter.endClass();
+
+        try {
+            ProgramRunner.run("Broken", emitter.toByteArray(), new String[0]);
+            Assert.fail();
+        } catch (ExecutionErrorException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("failed verification"));
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("VerifyError"));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+import compiler.CompilationErrorException;
+import compiler.InstructionList;
+import compiler.Opcode;
+import compiler.ProgramCompiler;
+import compiler.StackAnalyzer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StackAnalyzerTest {
+    @Test
+    public void testMaxStackFollowsBranches() throws Exception {
+        InstructionList code = new InstructionList();
+        code.beginMethod("f", "(I)D");
+        code.field(Opcode.GETSTATIC, "java/lang/System", "out", "Ljava/io/PrintStream;");
+        code.variable(Opcode.ILOAD_0, 0, "a");
+        code.jump(Opcode.IFEQ, "zero");
+        code.constant(ProgramCompiler.ValueType.D, "2.5");
+        code.jump(Opcode.GOTO, "print");
+        code.label("zero");
+        code.instruction(Opcode.DCONST_0);
+        code.label("print");
+        code.invoke(Opcode.INVOKEVIRTUAL, "java/io/PrintStream", "println", "(D)V");
+        code.instruction(Opcode.DCONST_1);
+        code.instruction(Opcode.DRETURN);
+        code.endMethod(0, 1);
+
+        Assert.assertEquals(3, new StackAnalyzer().analyze(code));
+    }
+
+    @Test(expected = CompilationErrorException.class)
+    public void testUnderflow() throws Exception {
+        InstructionList code = new InstructionList();
+        code.beginMethod("f", "()I");
+        code.instruction(Opcode.ICONST_1);
+        code.instruction(Opcode.IADD);
+        code.instruction(Opcode.IRETURN);
+        code.endMethod(0, 0);
+
+        new StackAnalyzer().analyze(code);
+    }
+
+    @Test(expected = CompilationErrorException.class)
+    public void testDifferentDepthsAtLabel() throws Exception {
+        InstructionList code = new InstructionList();
+        code.beginMethod("f", "(I)I");
+        code.variable(Opcode.ILOAD_0, 0, "a");
+        code.instruction(Opcode.ICONST_1);
+        code.jump(Opcode.IFEQ, "end");
+        code.instruction(Opcode.ICONST_2);
+        code.label("end");
+        code.instruction(Opcode.IRETURN);
+        code.endMethod(0, 1);
+
+        new StackAnalyzer().analyze(code);
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.Assert;
+import org.junit.Test;
+import tokenizer.SymbolTable;
+import tokenizer.TokenStream;
+
+public class SymbolTableTest {
+    @Test
+    public void testIntern() {
+        SymbolTable table = new SymbolTable();
+
+        int first = table.intern("value");
+        int second = table.intern("other");
+
+        Assert.assertEquals(0, first);
+        Assert.assertEquals(1, second);
+        Assert.assertEquals(first, table.intern("value".toCharArray(), 0, 5));
+        Assert.assertEquals(second, table.find("other"));
+        Assert.assertEquals(-1, table.find("missing"));
+        Assert.assertEquals("value", table.getName(first));
+        Assert.assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testGrow() {
+        SymbolTable table = new SymbolTable();
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, table.intern("name" + i));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, table.find("name" + i));
+        }
+    }
+
+    @Test
+    public void testSharedWithTokens() throws Exception {
+        SymbolTable table = new SymbolTable();
+        TokenStream stream = TokenStream.tokenize("a = b + a;", table);
+
+        Assert.assertEquals(2, table.size());
+        Assert.assertEquals(stream.getSymbol(0), stream.getSymbol(4));
+        Assert.assertEquals(table.find("b"), stream.getSymbol(2));
+        Assert.assertEquals(-1, stream.getSymbol(1));
+        Assert.assertSame(table.getName(stream.getSymbol(0)), stream.getValue(4));
+    }
+}
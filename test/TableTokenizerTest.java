@@ -0,0 +1,113 @@
+import buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+import tokenizer.IllegalCharacterException;
+import tokenizer.TableTokenizer;
+import tokenizer.Token;
+import tokenizer.Tokenizer;
+import tokenizer.TokenizerInterface;
+
+import java.io.FileReader;
+import java.io.StringReader;
+
+public class TableTokenizerTest {
+    private TokenizerInterface createTokenizer(String string) {
+        return new TableTokenizer(new Buffer(new StringReader(string), 10));
+    }
+
+    @Test
+    public void testGetToken() throws Exception {
+        TokenizerInterface tokenizer = createTokenizer(
+                "int a; /* comment \n ** */ a = 775 // one line\n double elseif b12.5 >= <= == = && || !");
+
+        Assert.assertEquals(new Token(Token.Type.INTEGER_TYPE), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "a"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.SEMICOLON), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "a"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.ASSIGN), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.INTEGER_VALUE, "775"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.DOUBLE_TYPE), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.ELSEIF), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "b"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.DOUBLE_VALUE, "12.5"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.GREATER_THAN_OR_EQUALS), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.LESS_THAN_OR_EQUALS), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.EQUALS), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.ASSIGN), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.AND), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.OR), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.NEGATION), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.END_OF_PROGRAM), tokenizer.getToken());
+    }
+
+    @Test
+    public void testNegation() throws Exception {
+        TokenizerInterface tokenizer = createTokenizer("!a != b !=!");
+
+        Assert.assertEquals(new Token(Token.Type.NEGATION), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "a"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.NOT_EQUALS), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "b"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.NOT_EQUALS), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.NEGATION), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.END_OF_PROGRAM), tokenizer.getToken());
+    }
+
+    @Test
+    public void testKeywords() throws Exception {
+        TokenizerInterface tokenizer = createTokenizer("if else elseif return print int double void iff voids");
+
+        Assert.assertEquals(Token.Type.IF, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.ELSE, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.ELSEIF, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.RETURN, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.PRINT, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.INTEGER_TYPE, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.DOUBLE_TYPE, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.VOID_TYPE, tokenizer.getToken().getType());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "iff"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "voids"), tokenizer.getToken());
+    }
+
+    @Test
+    public void testLoopKeywords() throws Exception {
+        TokenizerInterface tokenizer = createTokenizer("while for whilst form");
+
+        Assert.assertEquals(Token.Type.WHILE, tokenizer.getToken().getType());
+        Assert.assertEquals(Token.Type.FOR, tokenizer.getToken().getType());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "whilst"), tokenizer.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "form"), tokenizer.getToken());
+    }
+
+    @Test
+    public void testSquareBrackets() throws Exception {
+        TokenizerInterface tokenizer = createTokenizer("a[10]");
+
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "a"), tokenizer.getToken());
+        Assert.assertEquals(Token.Type.OPEN_SQUARE_BRACKET, tokenizer.getToken().getType());
+        Assert.assertEquals(new Token(Token.Type.INTEGER_VALUE, "10"), tokenizer.getToken());
+        Assert.assertEquals(Token.Type.CLOSE_SQUARE_BRACKET, tokenizer.getToken().getType());
+    }
+
+    @Test
+    public void testSameTokensAsTokenizer() throws Exception {
+        TokenizerInterface expected = new Tokenizer(new Buffer(new FileReader("./resources/debugProgram.c"), 10));
+        TokenizerInterface actual = new TableTokenizer(new Buffer(new FileReader("./resources/debugProgram.c"), 10));
+
+        Token token;
+
+        do {
+            token = expected.getToken();
+
+            Assert.assertEquals(token, actual.getToken());
+        } while (!token.hasType(Token.Type.END_OF_PROGRAM));
+    }
+
+    @Test(expected = IllegalCharacterException.class)
+    public void testIllegalCharacter() throws Exception {
+        TokenizerInterface tokenizer = createTokenizer("a & b");
+
+        tokenizer.getToken();
+        tokenizer.getToken();
+    }
+}
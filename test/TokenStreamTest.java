@@ -0,0 +1,56 @@
+import buffer.Buffer;
+import org.junit.Assert;
+import org.junit.Test;
+import tokenizer.Token;
+import tokenizer.TokenStream;
+import tokenizer.Tokenizer;
+import tokenizer.TokenizerInterface;
+
+import java.io.FileReader;
+import java.nio.file.Paths;
+
+public class TokenStreamTest {
+    @Test
+    public void testArrays() throws Exception {
+        TokenStream stream = TokenStream.tokenize("int abc = 12.5; // comment");
+
+        Assert.assertEquals(6, stream.size());
+
+        Assert.assertEquals(Token.Type.INTEGER_TYPE, stream.getType(0));
+        Assert.assertEquals(Token.Type.IDENTIFIER, stream.getType(1));
+        Assert.assertEquals(4, stream.getOffset(1));
+        Assert.assertEquals(3, stream.getLength(1));
+        Assert.assertEquals("abc", stream.getValue(1));
+        Assert.assertEquals(Token.Type.ASSIGN, stream.getType(2));
+        Assert.assertEquals(Token.Type.DOUBLE_VALUE, stream.getType(3));
+        Assert.assertEquals("12.5", stream.getValue(3));
+        Assert.assertEquals(Token.Type.SEMICOLON, stream.getType(4));
+        Assert.assertEquals(Token.Type.END_OF_PROGRAM, stream.getType(5));
+    }
+
+    @Test
+    public void testGetToken() throws Exception {
+        TokenStream stream = TokenStream.tokenize("a>=b");
+
+        Assert.assertEquals(Token.Type.GREATER_THAN_OR_EQUALS, stream.peekType(1));
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "a"), stream.getToken());
+        Assert.assertEquals(new Token(Token.Type.GREATER_THAN_OR_EQUALS), stream.getToken());
+        Assert.assertEquals(new Token(Token.Type.IDENTIFIER, "b"), stream.getToken());
+        Assert.assertEquals(new Token(Token.Type.END_OF_PROGRAM), stream.getToken());
+        Assert.assertEquals(new Token(Token.Type.END_OF_PROGRAM), stream.getToken());
+    }
+
+    @Test
+    public void testSameTokensAsTokenizer() throws Exception {
+        TokenizerInterface expected = new Tokenizer(new Buffer(new FileReader("./resources/debugProgram.c"), 10));
+        TokenizerInterface actual = TokenStream.tokenize(Paths.get("./resources/debugProgram.c"));
+
+        Token token;
+
+        do {
+            token = expected.getToken();
+
+            Assert.assertEquals(token, actual.getToken());
+        } while (!token.hasType(Token.Type.END_OF_PROGRAM));
+    }
+}